@@ -0,0 +1,245 @@
+package scrabble;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The dictionary words grouped by their letters, for anagram queries.
+ * A group's signature is the multiset of its letters, hashed as the sum of a
+ * {@link ZobristKeys#tile(int) key} per letter, the same hash a {@link LetterRack} of
+ * those letters has. The groups are found through an open addressing table on the
+ * signature, so the anagrams of a word are found with one lookup, and the words a rack
+ * can form with one lookup per choice of its tiles, with no pass over the word list.
+ *
+ * The words are kept as letter bytes in one array, grouped by signature, so the index
+ * holds no String objects; only the words of a result are built as strings.
+ */
+public class AnagramIndex {
+    private static final int LETTERS = 26;
+
+    private final byte[] letters;
+    /** The start of each word in {@link #letters}, and the end of the last one */
+    private final int[] wordStarts;
+    /** The first word of each group, and the end of the last group */
+    private final int[] groupStarts;
+    private final long[] tableKeys;
+    /** The group of each table slot plus one, 0 for an empty slot */
+    private final int[] tableGroups;
+
+    private AnagramIndex(byte[] letters, int[] wordStarts, int[] groupStarts, long[] groupKeys) {
+        this.letters = letters;
+        this.wordStarts = wordStarts;
+        this.groupStarts = groupStarts;
+        int capacity = Integer.highestOneBit(Math.max(1, groupKeys.length) * 2) * 2;
+        this.tableKeys = new long[capacity];
+        this.tableGroups = new int[capacity];
+        for (int group = 0; group < groupKeys.length; group++) {
+            int slot = slotOf(groupKeys[group]);
+            tableKeys[slot] = groupKeys[group];
+            tableGroups[slot] = group + 1;
+        }
+    }
+
+    /**
+     * Builds the index of a word list.
+     *
+     * @param words the words, lowercase a-z only
+     * @return the index
+     */
+    public static AnagramIndex fromWords(Collection<String> words) {
+        String[] sorted = words.toArray(new String[0]);
+        long[] signatures = new long[sorted.length];
+        Integer[] order = new Integer[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            signatures[i] = signatureOf(sorted[i]);
+            order[i] = i;
+        }
+        // Words of a group next to each other, in alphabetical order within it
+        Arrays.sort(order, (a, b) -> signatures[a] != signatures[b]
+                ? Long.compare(signatures[a], signatures[b]) : sorted[a].compareTo(sorted[b]));
+
+        int totalLetters = 0;
+        for (String word : sorted) {
+            totalLetters += word.length();
+        }
+        byte[] letters = new byte[totalLetters];
+        int[] wordStarts = new int[sorted.length + 1];
+        int[] groupStarts = new int[sorted.length + 1];
+        long[] groupKeys = new long[sorted.length];
+        int groups = 0;
+        int position = 0;
+        for (int k = 0; k < order.length; k++) {
+            String word = sorted[order[k]];
+            long signature = signatures[order[k]];
+            if (k == 0 || signature != signatures[order[k - 1]]) {
+                groupStarts[groups] = k;
+                groupKeys[groups++] = signature;
+            }
+            wordStarts[k] = position;
+            for (int i = 0; i < word.length(); i++) {
+                letters[position++] = (byte) word.charAt(i);
+            }
+        }
+        wordStarts[order.length] = position;
+        groupStarts[groups] = order.length;
+        return new AnagramIndex(letters, wordStarts, Arrays.copyOf(groupStarts, groups + 1),
+                Arrays.copyOf(groupKeys, groups));
+    }
+
+    private static long signatureOf(CharSequence word) {
+        long signature = 0;
+        for (int i = 0; i < word.length(); i++) {
+            signature += ZobristKeys.tile(word.charAt(i) - 'a');
+        }
+        return signature;
+    }
+
+    /**
+     * Finds the table slot of a signature: its own slot if the signature is in the table,
+     * or the empty slot where it would go.
+     */
+    private int slotOf(long signature) {
+        int mask = tableKeys.length - 1;
+        int slot = (int) (signature ^ (signature >>> 32)) & mask;
+        while (tableGroups[slot] != 0 && tableKeys[slot] != signature) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public int getWordCount() {
+        return wordStarts.length - 1;
+    }
+
+    /**
+     * Finds the words made of exactly the letters of a word, the word itself included if
+     * it is in the dictionary.
+     *
+     * @param word the letters, in any order and case
+     * @return the anagrams in alphabetical order, none if the word has characters other
+     *         than letters
+     */
+    public List<String> getAnagrams(String word) {
+        int[] counts = new int[LETTERS];
+        long signature = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = Character.toLowerCase(word.charAt(i));
+            if (c < 'a' || c > 'z') {
+                return new ArrayList<>();
+            }
+            counts[c - 'a']++;
+            signature += ZobristKeys.tile(c - 'a');
+        }
+        List<String> anagrams = new ArrayList<>();
+        addGroup(signature, counts, word.length(), anagrams::add);
+        return anagrams;
+    }
+
+    /**
+     * Finds every word that can be formed from some or all of the tiles of a rack.
+     * A blank stands for any letter, and blanks are only used for letters the rack has
+     * no tile of left, so each word is found once.
+     *
+     * @param rack the tiles, letters and '*' for blanks; other characters are ignored
+     * @return the words, grouped by their letters
+     */
+    public List<String> getSubAnagrams(String rack) {
+        List<String> words = new ArrayList<>();
+        forEachSubAnagram(rack, words::add);
+        return words;
+    }
+
+    /**
+     * Passes every word that can be formed from some or all of the tiles of a rack to a
+     * consumer, as {@link #getSubAnagrams(String)} finds them, without collecting them.
+     *
+     * @param rack     the tiles, letters and '*' for blanks; other characters are ignored
+     * @param consumer the consumer of the words
+     */
+    public void forEachSubAnagram(String rack, Consumer<String> consumer) {
+        int[] have = new int[LETTERS];
+        int blanks = 0;
+        for (int i = 0; i < rack.length(); i++) {
+            char c = Character.toLowerCase(rack.charAt(i));
+            if (c >= 'a' && c <= 'z') {
+                have[c - 'a']++;
+            } else if (c == '*') {
+                blanks++;
+            }
+        }
+        chooseTiles(0, have, new int[LETTERS], 0, 0, blanks, consumer);
+    }
+
+    /**
+     * Chooses how many tiles of each letter from {@code letter} on go into the word, then
+     * what the blanks stand for.
+     */
+    private void chooseTiles(int letter, int[] have, int[] chosen, int length, long signature,
+                             int blanks, Consumer<String> consumer) {
+        if (letter == LETTERS) {
+            chooseBlanks(0, have, chosen, length, signature, blanks, consumer);
+            return;
+        }
+        for (int count = 0; count <= have[letter]; count++) {
+            chosen[letter] = count;
+            chooseTiles(letter + 1, have, chosen, length + count,
+                    signature + count * ZobristKeys.tile(letter), blanks, consumer);
+        }
+        chosen[letter] = 0;
+    }
+
+    /**
+     * Chooses the letters of the remaining blanks, in alphabetical order so each choice is
+     * made once, and looks up the group of every choice.
+     */
+    private void chooseBlanks(int from, int[] have, int[] chosen, int length, long signature,
+                              int blanks, Consumer<String> consumer) {
+        if (length > 0) {
+            addGroup(signature, chosen, length, consumer);
+        }
+        if (blanks == 0) {
+            return;
+        }
+        for (int letter = from; letter < LETTERS; letter++) {
+            if (chosen[letter] < have[letter]) {
+                // A tile of this letter is left, which the word uses before a blank
+                continue;
+            }
+            chosen[letter]++;
+            chooseBlanks(letter, have, chosen, length + 1, signature + ZobristKeys.tile(letter),
+                    blanks - 1, consumer);
+            chosen[letter]--;
+        }
+    }
+
+    /**
+     * Passes the words of a signature's group to a consumer, checking their letters
+     * against the counts in case two letter multisets share a hash.
+     */
+    private void addGroup(long signature, int[] counts, int length, Consumer<String> consumer) {
+        int slot = slotOf(signature);
+        if (tableGroups[slot] == 0) {
+            return;
+        }
+        int group = tableGroups[slot] - 1;
+        int[] seen = new int[LETTERS];
+        for (int word = groupStarts[group]; word < groupStarts[group + 1]; word++) {
+            int start = wordStarts[word];
+            int end = wordStarts[word + 1];
+            if (end - start != length) {
+                continue;
+            }
+            Arrays.fill(seen, 0);
+            for (int i = start; i < end; i++) {
+                seen[letters[i] - 'a']++;
+            }
+            if (Arrays.equals(seen, counts)) {
+                consumer.accept(new String(letters, start, end - start, StandardCharsets.US_ASCII));
+            }
+        }
+    }
+}
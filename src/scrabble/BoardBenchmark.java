@@ -0,0 +1,167 @@
+package scrabble;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Times the board operations that move generation and scoring call most: letter lookups,
+ * adjacent word reads and move scoring, on every puzzle of a solver input file. Moves are
+ * scored both from coordinate lists and straight from the board arrays.
+ * The moves that are scored are the ones the move generator finds for each puzzle.
+ *
+ * Usage: java scrabble.BoardBenchmark dictionary_file tile_config_file input_file [iterations]
+ */
+public class BoardBenchmark {
+    private static final char[] DIRECTIONS = {'L', 'R', 'U', 'D'};
+
+    public static void main(String[] args) throws IOException {
+        GameLogger.setQuietByDefault();
+        if (args.length != 3 && args.length != 4) {
+            System.out.println("Usage: java scrabble.BoardBenchmark <dictionary_file> <tile_config_file> <input_file> [<iterations>]");
+            System.exit(1);
+        }
+        int iterations = args.length == 4 ? Integer.parseInt(args[3]) : 200;
+
+        Dictionary dictionary = Dictionary.load(args[0]);
+        ScoreMap scoreMap;
+        try (BufferedReader br = new BufferedReader(new FileReader(args[1]))) {
+            scoreMap = new ScoreMap(br);
+        }
+
+        long lookupTotal = 0;
+        long lookupOps = 0;
+        long wordTotal = 0;
+        long wordOps = 0;
+        long scoreTotal = 0;
+        long scoreOps = 0;
+        long moveScoreTotal = 0;
+        long checksum = 0;
+        int puzzle = 0;
+        try (BufferedReader input = new BufferedReader(new FileReader(args[2]))) {
+            String line;
+            while ((line = input.readLine()) != null) {
+                int dimension = Integer.parseInt(line.trim());
+                StringBuilder boardConfig = new StringBuilder();
+                for (int i = 0; i < dimension; i++) {
+                    boardConfig.append(input.readLine()).append(" ");
+                }
+                String tray = input.readLine().trim();
+
+                GameBoard gameBoard = new GameBoard(dimension, scoreMap);
+                gameBoard.configBoard(boardConfig.toString().trim(), scoreMap);
+                gameBoard.setDictionary(dictionary);
+
+                List<Move> moves = new ArrayList<>();
+                ScrabbleMoveGenerator generator = new ScrabbleMoveGenerator(gameBoard, dictionary) {
+                    @Override
+                    protected void recordMove(char[] letters, int offset, int length, int row, int col, boolean vertical) {
+                        moves.add(new Move(new String(letters, offset, length), row, col, vertical, 0));
+                    }
+                };
+                LinkedList<Character> tiles = new LinkedList<>();
+                for (char c : tray.toCharArray()) {
+                    tiles.add(c);
+                }
+                generator.setAvailableTiles(tiles);
+                generator.generateAllPossibleMoves();
+                List<String> words = new ArrayList<>();
+                List<LinkedList<int[]>> coordinates = new ArrayList<>();
+                for (Move move : moves) {
+                    words.add(move.getWord());
+                    coordinates.add(move.getCoordinates());
+                }
+
+                // Warm up with as many runs as are timed
+                checksum += lookups(gameBoard, iterations) + adjacentWords(gameBoard, iterations)
+                        + scores(gameBoard, words, coordinates, iterations) + moveScores(gameBoard, moves, iterations);
+                long start = System.nanoTime();
+                checksum += lookups(gameBoard, iterations);
+                lookupTotal += System.nanoTime() - start;
+                lookupOps += (long) iterations * dimension * dimension;
+
+                start = System.nanoTime();
+                checksum += adjacentWords(gameBoard, iterations);
+                wordTotal += System.nanoTime() - start;
+                wordOps += (long) iterations * dimension * dimension * DIRECTIONS.length;
+
+                start = System.nanoTime();
+                checksum += scores(gameBoard, words, coordinates, iterations);
+                scoreTotal += System.nanoTime() - start;
+                scoreOps += (long) iterations * words.size();
+
+                start = System.nanoTime();
+                checksum += moveScores(gameBoard, moves, iterations);
+                moveScoreTotal += System.nanoTime() - start;
+                puzzle++;
+                System.out.printf("puzzle %d (%s): %d moves scored per run%n", puzzle, tray, words.size());
+            }
+        }
+
+        System.out.printf("letter lookup:  %8.1f ns/op%n", (double) lookupTotal / lookupOps);
+        System.out.printf("adjacent word:  %8.1f ns/op%n", (double) wordTotal / wordOps);
+        System.out.printf("move scoring:   %8.1f ns/op%n", (double) scoreTotal / scoreOps);
+        System.out.printf("array scoring:  %8.1f ns/op%n", (double) moveScoreTotal / scoreOps);
+        System.out.println("checksum " + checksum);
+    }
+
+    private static long lookups(GameBoard gameBoard, int iterations) {
+        int dimension = gameBoard.getDimension();
+        long checksum = 0;
+        for (int run = 0; run < iterations; run++) {
+            for (int i = 0; i < dimension; i++) {
+                for (int j = 0; j < dimension; j++) {
+                    if (gameBoard.hasExistingLetter(i, j)) {
+                        checksum += gameBoard.getTileLetter(i, j);
+                    }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private static long adjacentWords(GameBoard gameBoard, int iterations) {
+        int dimension = gameBoard.getDimension();
+        long checksum = 0;
+        for (int run = 0; run < iterations; run++) {
+            for (int i = 0; i < dimension; i++) {
+                for (int j = 0; j < dimension; j++) {
+                    for (char dir : DIRECTIONS) {
+                        checksum += gameBoard.getAdjacentWord(i, j, dir).length();
+                    }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private static long scores(GameBoard gameBoard, List<String> words, List<LinkedList<int[]>> coordinates, int iterations) {
+        long checksum = 0;
+        for (int run = 0; run < iterations; run++) {
+            for (int k = 0; k < words.size(); k++) {
+                checksum += gameBoard.calculateTotalScore(coordinates.get(k), words.get(k), false);
+            }
+        }
+        return checksum;
+    }
+
+    private static long moveScores(GameBoard gameBoard, List<Move> moves, int iterations) {
+        List<char[]> letters = new ArrayList<>();
+        for (Move move : moves) {
+            letters.add(move.getWord().toCharArray());
+        }
+        long checksum = 0;
+        for (int run = 0; run < iterations; run++) {
+            for (int k = 0; k < moves.size(); k++) {
+                Move move = moves.get(k);
+                char[] word = letters.get(k);
+                checksum += gameBoard.calculateMoveScore(move.getRow(), move.getCol(), move.isVertical(),
+                        word, 0, word.length, false);
+            }
+        }
+        return checksum;
+    }
+}
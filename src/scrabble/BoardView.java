@@ -0,0 +1,97 @@
+package scrabble;
+
+/**
+ * One direction of play on a {@link GameBoard}.
+ * Moves are searched left to right along the rows of a view. The row-major view is the
+ * board as it is and covers horizontal moves; the transposed view swaps rows and columns
+ * and covers vertical moves. Both views read the board's own letter grids, which the
+ * board keeps in sync on every placement, so switching direction copies nothing.
+ */
+public class BoardView {
+    private final GameBoard board;
+    private final byte[] letters;
+    private final int dimension;
+    private final boolean transposed;
+
+    BoardView(GameBoard board, boolean transposed) {
+        this.board = board;
+        this.letters = board.getLetterGrid(transposed);
+        this.dimension = board.getDimension();
+        this.transposed = transposed;
+    }
+
+    public boolean isTransposed() {
+        return transposed;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Checks if there is a letter on a square of the view.
+     *
+     * @param row the row index in the view
+     * @param col the column index in the view
+     * @return true if there is a letter, false if the square is empty or off the board
+     */
+    public boolean hasExistingLetter(int row, int col) {
+        if (row < 0 || row >= dimension || col < 0 || col >= dimension) {
+            return false;
+        }
+        return letters[row * dimension + col] != 0;
+    }
+
+    /**
+     * Retrieves the letter on a square of the view.
+     *
+     * @param row the row index in the view
+     * @param col the column index in the view
+     * @return the letter, or '\0' if the square is empty
+     */
+    public char getTileLetter(int row, int col) {
+        return (char) letters[row * dimension + col];
+    }
+
+    /**
+     * Retrieves the letters next to a square in a direction of the view.
+     *
+     * @param row the row index in the view
+     * @param col the column index in the view
+     * @param dir 'L', 'R', 'U' or 'D', relative to the view
+     * @return the adjacent word, read left to right or top to bottom in the view
+     */
+    public String getAdjacentWord(int row, int col, char dir) {
+        if (!transposed) {
+            return board.getAdjacentWord(row, col, dir);
+        }
+        switch (dir) {
+            case 'L':
+                return board.getAdjacentWord(col, row, 'U');
+            case 'R':
+                return board.getAdjacentWord(col, row, 'D');
+            case 'U':
+                return board.getAdjacentWord(col, row, 'L');
+            case 'D':
+                return board.getAdjacentWord(col, row, 'R');
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + dir);
+        }
+    }
+
+    public boolean isAnchor(int row, int col) {
+        return transposed ? board.isAnchor(col, row) : board.isAnchor(row, col);
+    }
+
+    /**
+     * Returns the letters that can be played on a square of the view by a move along its
+     * row, see {@link GameBoard#getCrossCheck(int, int, boolean)}.
+     *
+     * @param row the row index in the view
+     * @param col the column index in the view
+     * @return the cross-check mask
+     */
+    public int getCrossCheck(int row, int col) {
+        return transposed ? board.getCrossCheck(col, row, true) : board.getCrossCheck(row, col, false);
+    }
+}
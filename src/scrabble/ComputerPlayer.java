@@ -6,13 +6,28 @@ import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 public class ComputerPlayer extends Player {
-    private static final Logger LOGGER = Logger.getLogger(ComputerPlayer.class.getName());
+    private static final Logger LOGGER = GameLogger.getLogger(ComputerPlayer.class);
 
     private Rack rack;
+    private GameBoard gameBoard;
+    private Dictionary dictionary;
     private ScrabbleMoveGenerator moveGenerator;
+    private String difficulty;
+    private int threads = 1;
+    private LeaveTable leaveTable;
+    private MoveSimulator simulator;
+    private LetterRack unseenTiles;
+    private EndgameSolver endgameSolver;
+    private LetterRack opponentTiles;
+    private boolean opponentPassed;
+    private int bestMoveScore;
     private int score;
     public boolean hasNoValidMove;
 
+    private enum MoveEngine {
+        ANCHOR, GADDAG
+    }
+
     public ComputerPlayer(Rack rack, GameBoard gameBoard, Dictionary dictionary) {
         super(rack);
         LOGGER.info("Initializing ComputerPlayer");
@@ -21,37 +36,179 @@ public class ComputerPlayer extends Player {
 
     private void initializeComputerPlayer(Rack playerRack, GameBoard gameBoard, Dictionary dictionary) {
         this.rack = playerRack;
+        this.gameBoard = gameBoard;
+        this.dictionary = dictionary;
         this.moveGenerator = new ScrabbleMoveGenerator(gameBoard, dictionary);
-        LinkedList<Character> tiles = convertTilesToLettersList(playerRack.getAllTiles());
-        moveGenerator.setAvailableTiles(tiles);
+        moveGenerator.setAvailableTiles(convertTilesToLettersList(playerRack.getAllTiles()));
         this.hasNoValidMove = false;
         this.score = 0;
 
-        LOGGER.log(Level.INFO, "ComputerPlayer initialized with rack: {0}",
-                tiles.stream()
-                        .map(String::valueOf)
-                        .collect(Collectors.joining(", ")));
+        LOGGER.info(() -> "ComputerPlayer initialized with rack: " + String.join(", ", playerRack.getLetters()));
     }
 
+    /**
+     * Sets the strength of the computer player: "easy", "medium" and "hard" play the
+     * highest scoring move with the score reduced at the lower levels, and "expert"
+     * chooses among the best moves by simulating the game after them, see
+     * {@link MoveSimulator}. Once the bag is empty, "hard" and "expert" search the rest
+     * of the game with an {@link EndgameSolver}.
+     *
+     * @param difficulty the difficulty level
+     */
     public void setComputerPlayerDifficulty(String difficulty) {
         LOGGER.log(Level.INFO, "Setting computer difficulty to: {0}", difficulty);
+        this.difficulty = difficulty;
         if (moveGenerator instanceof ScrabbleMoveGenerator) {
             moveGenerator.setDifficulty(difficulty);
         }
+        if (difficulty.equalsIgnoreCase("expert")) {
+            if (simulator == null) {
+                simulator = new MoveSimulator(dictionary);
+                simulator.setLeaveTable(leaveTable);
+            }
+        } else {
+            simulator = null;
+        }
+        if (difficulty.equalsIgnoreCase("hard") || difficulty.equalsIgnoreCase("expert")) {
+            if (endgameSolver == null && gameBoard.getScoreMap() != null) {
+                endgameSolver = new EndgameSolver(dictionary, gameBoard.getScoreMap());
+            }
+        } else {
+            endgameSolver = null;
+        }
+    }
+
+    /**
+     * Tells the player which tiles it cannot see before its move: those in the bag and on
+     * the opponent's rack. The expert level draws its simulated racks from them.
+     *
+     * @param unseenTiles the unseen tiles
+     */
+    public void setUnseenTiles(LetterRack unseenTiles) {
+        this.unseenTiles = unseenTiles;
+    }
+
+    /**
+     * Tells the player the opponent's tiles, which are known once the bag is empty.
+     * The endgame solver of the higher levels plays from them.
+     *
+     * @param opponentTiles the opponent's tiles, or null while the bag is not empty
+     */
+    public void setOpponentTiles(LetterRack opponentTiles) {
+        this.opponentTiles = opponentTiles;
+    }
+
+    /**
+     * Tells the player whether the opponent passed last turn, when passing back ends the game.
+     * The endgame solver searches from it.
+     *
+     * @param opponentPassed true if the opponent's last turn was a pass
+     */
+    public void setOpponentPassed(boolean opponentPassed) {
+        this.opponentPassed = opponentPassed;
+    }
+
+    /**
+     * Returns the endgame solver of the higher levels, to tune its time budget.
+     *
+     * @return the solver, or null below the hard level
+     */
+    public EndgameSolver getEndgameSolver() {
+        return endgameSolver;
+    }
+
+    /**
+     * Returns the simulator of the expert level, to tune its time budget or candidates.
+     *
+     * @return the simulator, or null below the expert level
+     */
+    public MoveSimulator getSimulator() {
+        return simulator;
+    }
+
+    /**
+     * Selects the move generation engine: "anchor" for the anchor and left-part search,
+     * or "gaddag" for the GADDAG search. Both find the same moves.
+     *
+     * @param engine the name of the engine
+     * @throws IllegalArgumentException if the engine name is unknown
+     */
+    public void setMoveEngine(String engine) {
+        LOGGER.log(Level.INFO, "Setting move engine to: {0}", engine);
+        switch (MoveEngine.valueOf(engine.toUpperCase())) {
+            case GADDAG:
+                moveGenerator = new GaddagMoveGenerator(gameBoard, dictionary);
+                break;
+            case ANCHOR:
+                moveGenerator = new ScrabbleMoveGenerator(gameBoard, dictionary);
+                break;
+        }
+        moveGenerator.setAvailableTiles(convertTilesToLettersList(rack.getAllTiles()));
+        moveGenerator.setThreads(threads);
+        moveGenerator.setLeaveTable(leaveTable);
+        if (difficulty != null) {
+            moveGenerator.setDifficulty(difficulty);
+        }
+    }
+
+    /**
+     * Sets the number of threads the move generator searches anchors on. The moves found
+     * are the same for any number of threads.
+     *
+     * @param threads the number of threads, 1 to search on the calling thread
+     * @throws IllegalArgumentException if the number is less than one
+     */
+    public void setMoveThreads(int threads) {
+        LOGGER.log(Level.INFO, "Setting move generation threads to: {0}", threads);
+        moveGenerator.setThreads(threads);
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the values of the tiles kept on the rack, so moves are chosen by score plus
+     * leave value. Without a table the highest scoring move is played.
+     *
+     * @param leaveTable the leave values, or null to play by score alone
+     */
+    public void setLeaveTable(LeaveTable leaveTable) {
+        LOGGER.info(() -> "Setting leave table: " + (leaveTable == null ? "none" : leaveTable.size() + " leaves"));
+        moveGenerator.setLeaveTable(leaveTable);
+        if (simulator != null) {
+            simulator.setLeaveTable(leaveTable);
+        }
+        this.leaveTable = leaveTable;
     }
 
     public void generateNextMove() {
         LOGGER.info("Generating next computer move");
-        moveGenerator.determineBestMove();
-        String bestWord = moveGenerator.getBestWord();
-        LinkedList<int[]> coordinates = moveGenerator.getBestMoveCoordinates();
+        String bestWord;
+        LinkedList<int[]> coordinates;
+        if (endgameSolver != null && opponentTiles != null) {
+            Move move = endgameSolver.chooseMove(gameBoard, convertTilesToLettersList(rack.getAllTiles()), opponentTiles,
+                    opponentPassed);
+            LOGGER.info(() -> "Endgame searched " + endgameSolver.getLastDepth() + " turns ahead"
+                    + (endgameSolver.isLastSolved() ? " to the end" : "") + ", spread " + endgameSolver.getLastValue());
+            bestWord = move == null ? "" : move.getWord();
+            coordinates = move == null ? new LinkedList<>() : move.getCoordinates();
+            bestMoveScore = move == null ? 0 : move.getScore();
+        } else if (simulator != null && unseenTiles != null) {
+            Move move = simulator.chooseMove(gameBoard, convertTilesToLettersList(rack.getAllTiles()), unseenTiles);
+            LOGGER.info(() -> "Simulated " + simulator.getLastPlayouts() + " playouts");
+            bestWord = move == null ? "" : move.getWord();
+            coordinates = move == null ? new LinkedList<>() : move.getCoordinates();
+            bestMoveScore = move == null ? 0 : move.getScore();
+        } else {
+            moveGenerator.determineBestMove();
+            bestWord = moveGenerator.getBestWord();
+            coordinates = moveGenerator.getBestMoveCoordinates();
+            bestMoveScore = moveGenerator.getScore();
+        }
 
         if (!bestWord.isEmpty()) {
-            LOGGER.log(Level.INFO, "Found move: word={0}, score={1}, coordinates={2}",
-                    new Object[]{bestWord, moveGenerator.getScore(),
-                            coordinates.stream()
-                                    .map(coord -> String.format("(%d,%d)", coord[0], coord[1]))
-                                    .collect(Collectors.joining(", "))});
+            LOGGER.info(() -> "Found move: word=" + bestWord + ", score=" + bestMoveScore
+                    + ", coordinates=" + coordinates.stream()
+                            .map(coord -> String.format("(%d,%d)", coord[0], coord[1]))
+                            .collect(Collectors.joining(", ")));
         } else {
             LOGGER.info("No valid moves found");
         }
@@ -71,26 +228,25 @@ public class ComputerPlayer extends Player {
 
     @Override
     public void setRack(Rack rack) {
-        LOGGER.log(Level.INFO, "Updating rack: {0}",
-                rack.getLetters().stream().collect(Collectors.joining(", ")));
+        LOGGER.info(() -> "Updating rack: " + String.join(", ", rack.getLetters()));
         this.rack = rack;
         moveGenerator.setAvailableTiles(convertTilesToLettersList(rack.getAllTiles()));
     }
 
     public int getBestMoveScore() {
-        return moveGenerator.getScore();
+        return bestMoveScore;
     }
 
     public Rack getRack() {
         return rack;
     }
 
-    private LinkedList<Character> convertTilesToLettersList(LinkedList<Tile> tileList) {
-        LinkedList<Character> letterList = new LinkedList<>();
+    private LetterRack convertTilesToLettersList(LinkedList<Tile> tileList) {
+        LetterRack letters = new LetterRack();
         for (Tile tile : tileList) {
-            letterList.add(tile.getLetter().charAt(0));
+            letters.add(tile.getLetter().charAt(0));
         }
-        return letterList;
+        return letters;
     }
 
     public void updateScore(int additionalScore) {
@@ -105,13 +261,11 @@ public class ComputerPlayer extends Player {
     }
 
     public void refreshRack(TileBag tileBag) {
-        LOGGER.log(Level.INFO, "Refreshing rack. Before refresh: {0}",
-                rack.getLetters().stream().collect(Collectors.joining(", ")));
+        LOGGER.info(() -> "Refreshing rack. Before refresh: " + String.join(", ", rack.getLetters()));
 
         rack.refill(tileBag);
         moveGenerator.setAvailableTiles(convertTilesToLettersList(rack.getAllTiles()));
 
-        LOGGER.log(Level.INFO, "After refresh: {0}",
-                rack.getLetters().stream().collect(Collectors.joining(", ")));
+        LOGGER.info(() -> "After refresh: " + String.join(", ", rack.getLetters()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,825 @@
+package scrabble;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * A minimized directed acyclic word graph (DAWG).
+ * Words that share a suffix share the nodes for that suffix, and all nodes are stored
+ * in flat int buffers instead of one object per node.
+ *
+ * Nodes are identified by int ids. For a node n, {@code nodes[2n]} holds a bit for every
+ * outgoing letter (bit i for letter index i) plus {@link #TERMINAL_BIT} if a word ends at
+ * the node, and {@code nodes[2n + 1]} is the offset of its first edge. Edges are stored
+ * in letter order, so the child for letter i is found with a single bit count.
+ *
+ * The buffers either wrap heap arrays or view a memory-mapped dictionary image
+ * (see {@link DictionaryImage}); both are only read with absolute gets, so a graph can be
+ * shared between threads.
+ *
+ * One graph can hold several lexicons (word lists). Each word then carries a bit for every
+ * lexicon it is in, and {@code lexicons[n]} holds the bits of the word ending at node n in
+ * its low half and the bits of every word at or below n in its high half. Nodes with other
+ * bits are not merged. {@link #forLexicon(int)} views one lexicon of such a graph, hiding
+ * the edges that lead to none of its words.
+ */
+public class Dawg implements Iterable<String> {
+    public static final int NONE = -1;
+    public static final int ALPHABET_SIZE = 27;
+    public static final int MAX_LEXICONS = 16;
+    private static final int TERMINAL_BIT = 1 << 31;
+    private static final char FIRST_LETTER = 'a';
+    private static final int LEXICON_BITS = (1 << MAX_LEXICONS) - 1;
+
+    private final IntBuffer nodes;
+    private final IntBuffer edges;
+    private final int root;
+    private final int wordCount;
+    /** Lexicon bits of each node, or null for a graph of one word list */
+    private final IntBuffer lexicons;
+    /** The word count of each lexicon, or null */
+    private final int[] lexiconWordCounts;
+    /** The bit of the lexicon this graph shows, or 0 for all words */
+    private final int lexicon;
+
+    private Dawg(IntBuffer nodes, IntBuffer edges, int root, int wordCount) {
+        this(nodes, edges, root, wordCount, null, null, 0);
+    }
+
+    private Dawg(IntBuffer nodes, IntBuffer edges, int root, int wordCount, IntBuffer lexicons,
+                 int[] lexiconWordCounts, int lexicon) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.root = root;
+        this.wordCount = wordCount;
+        this.lexicons = lexicons;
+        this.lexiconWordCounts = lexiconWordCounts;
+        this.lexicon = lexicon;
+    }
+
+    /**
+     * Builds a DAWG from the given words. The words are sorted and de-duplicated first.
+     *
+     * @param words the words to store, lowercase a-z only
+     * @return the minimized graph
+     * @throws IllegalArgumentException if a word is empty or contains an invalid character
+     */
+    public static Dawg fromWords(List<String> words) {
+        String[] sorted = words.toArray(new String[0]);
+        Arrays.sort(sorted);
+        Builder builder = new Builder();
+        for (String word : sorted) {
+            builder.addWord(word);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds one DAWG holding several word lists, each word marked with the lexicons it is
+     * in. The words of each list are sorted and de-duplicated first.
+     *
+     * @param wordLists the words of each lexicon, lowercase a-z only
+     * @return the minimized graph; {@link #forLexicon(int)} views lexicon i, the list at index i
+     * @throws IllegalArgumentException if there are no lists or more than {@link #MAX_LEXICONS},
+     *                                  or a word is empty or contains an invalid character
+     */
+    public static Dawg fromLexicons(List<? extends Collection<String>> wordLists) {
+        int count = wordLists.size();
+        if (count == 0) {
+            throw new IllegalArgumentException("No word lists given");
+        }
+        String[][] sorted = new String[count][];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = wordLists.get(i).toArray(new String[0]);
+            Arrays.sort(sorted[i]);
+        }
+
+        // Merge the lists, adding each word once with the bits of the lists it is in
+        Builder builder = new Builder(count);
+        int[] positions = new int[count];
+        while (true) {
+            String next = null;
+            for (int i = 0; i < count; i++) {
+                if (positions[i] < sorted[i].length && (next == null || sorted[i][positions[i]].compareTo(next) < 0)) {
+                    next = sorted[i][positions[i]];
+                }
+            }
+            if (next == null) {
+                return builder.build();
+            }
+            int bits = 0;
+            for (int i = 0; i < count; i++) {
+                while (positions[i] < sorted[i].length && sorted[i][positions[i]].equals(next)) {
+                    bits |= 1 << i;
+                    positions[i]++;
+                }
+            }
+            builder.addWord(next, bits);
+        }
+    }
+
+    /**
+     * Checks that a word only uses the letters a-z.
+     *
+     * @param word the word to check
+     * @throws IllegalArgumentException if the word is empty or contains an invalid character
+     */
+    public static void checkWord(String word) {
+        if (word == null || word.isEmpty()) {
+            throw new IllegalArgumentException("Word cannot be null or empty");
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < FIRST_LETTER || c > 'z') {
+                throw new IllegalArgumentException("Invalid character: " + c);
+            }
+        }
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * Follows the edge for the given letter index.
+     *
+     * @param node  the node to start from
+     * @param index the letter index (0 for 'a')
+     * @return the child node, or {@link #NONE} if there is no such edge
+     */
+    public int getChild(int node, int index) {
+        int mask = nodes.get(2 * node);
+        int bit = 1 << index;
+        if ((mask & bit) == 0) {
+            return NONE;
+        }
+        int child = edges.get(nodes.get(2 * node + 1) + Integer.bitCount(mask & (bit - 1)));
+        return lexicon == 0 || leadsToLexicon(child) ? child : NONE;
+    }
+
+    private boolean leadsToLexicon(int node) {
+        return ((lexicons.get(node) >>> MAX_LEXICONS) & lexicon) != 0;
+    }
+
+    public boolean isCompleteWord(int node) {
+        if (lexicon != 0) {
+            return (lexicons.get(node) & lexicon) != 0;
+        }
+        return (nodes.get(2 * node) & TERMINAL_BIT) != 0;
+    }
+
+    /**
+     * Returns the bits of the letters that have an edge out of the given node.
+     *
+     * @param node the node
+     * @return a bit mask with bit i set if letter index i has a child
+     */
+    public int getChildMask(int node) {
+        int mask = nodes.get(2 * node) & ~TERMINAL_BIT;
+        if (lexicon != 0) {
+            int edge = nodes.get(2 * node + 1);
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                if (!leadsToLexicon(edges.get(edge++))) {
+                    mask &= ~Integer.lowestOneBit(bits);
+                }
+            }
+        }
+        return mask;
+    }
+
+    public boolean containsWord(String word) {
+        int node = findNode(word);
+        return node != NONE && isCompleteWord(node);
+    }
+
+    public boolean isPrefix(String prefix) {
+        return findNode(prefix) != NONE;
+    }
+
+    public List<String> findWordsWithPrefix(String prefix) {
+        List<String> words = new ArrayList<>();
+        int prefixNode = findNode(prefix);
+
+        if (prefixNode != NONE) {
+            findAllWords(prefixNode, new StringBuilder(prefix.toLowerCase()), words);
+        }
+
+        return words;
+    }
+
+    /**
+     * Lists every word in the graph in alphabetical order.
+     *
+     * @return all words
+     */
+    public List<String> getAllWords() {
+        List<String> words = new ArrayList<>(wordCount);
+        findAllWords(root, new StringBuilder(), words);
+        return words;
+    }
+
+    /**
+     * Iterates over the words in alphabetical order, walking the graph as the words are
+     * asked for, so only the word being returned is built as a String.
+     *
+     * @return an iterator over the words
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new WordIterator();
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Gets the number of lexicons the graph holds.
+     *
+     * @return the number of lexicons, 0 for a graph of one word list
+     */
+    public int getLexiconCount() {
+        return lexiconWordCounts == null ? 0 : lexiconWordCounts.length;
+    }
+
+    /**
+     * Views one lexicon of the graph. The view shares the buffers of this graph and holds
+     * only the words of the lexicon: edges that lead to none of them are hidden, so
+     * prefixes and move searches see exactly that word list.
+     *
+     * @param index the lexicon, numbered from 0 in the order they were built
+     * @return the view
+     * @throws IllegalArgumentException if the graph has no such lexicon
+     */
+    public Dawg forLexicon(int index) {
+        if (index < 0 || index >= getLexiconCount()) {
+            throw new IllegalArgumentException("No lexicon " + index + " in a graph of " + getLexiconCount());
+        }
+        return new Dawg(nodes, edges, root, lexiconWordCounts[index], lexicons, lexiconWordCounts, 1 << index);
+    }
+
+    /**
+     * Passes the words that are in every given lexicon and in none of the excluded ones to
+     * a consumer, in alphabetical order. Subgraphs with no word of the required lexicons
+     * are skipped, so a query costs about as much as walking the words it finds.
+     *
+     * @param required the bits of the lexicons the words must be in
+     * @param excluded the bits of the lexicons the words must not be in
+     * @param consumer the consumer of the words
+     * @throws IllegalStateException if the graph does not hold lexicons
+     */
+    public void forEachWordIn(int required, int excluded, Consumer<String> consumer) {
+        if (lexicons == null) {
+            throw new IllegalStateException("The graph holds a single word list");
+        }
+        forEachWordIn(root, required & LEXICON_BITS, excluded & LEXICON_BITS, new StringBuilder(), consumer);
+    }
+
+    private void forEachWordIn(int node, int required, int excluded, StringBuilder prefix, Consumer<String> consumer) {
+        int bits = lexicons.get(node);
+        if ((bits & required) == required && (bits & excluded) == 0 && (bits & LEXICON_BITS) != 0) {
+            consumer.accept(prefix.toString());
+        }
+
+        int mask = nodes.get(2 * node) & ~TERMINAL_BIT;
+        int edge = nodes.get(2 * node + 1);
+        for (; mask != 0; mask &= mask - 1) {
+            int child = edges.get(edge++);
+            if (((lexicons.get(child) >>> MAX_LEXICONS) & required) == required) {
+                prefix.append((char) (FIRST_LETTER + Integer.numberOfTrailingZeros(mask)));
+                forEachWordIn(child, required, excluded, prefix, consumer);
+                prefix.setLength(prefix.length() - 1);
+            }
+        }
+    }
+
+    public int getNodeCount() {
+        return nodes.capacity() / 2;
+    }
+
+    public int getEdgeCount() {
+        return edges.capacity();
+    }
+
+    /**
+     * Gets the number of bytes held by the node and edge buffers.
+     *
+     * @return the size of the graph in bytes
+     */
+    public long getSizeInBytes() {
+        return 4L * (nodes.capacity() + edges.capacity() + (lexicons == null ? 0 : lexicons.capacity()));
+    }
+
+    /**
+     * Gets the number of bytes {@link #write(ByteBuffer)} needs for this graph.
+     *
+     * @return the size of the serialized graph in bytes
+     */
+    int getImageSize() {
+        return 16 + (int) getSizeInBytes();
+    }
+
+    /**
+     * Writes the graph at the buffer's position and advances past it.
+     * The layout is four header ints (root, word count, node ints, edges) followed by the
+     * node and edge ints, in the byte order of the buffer.
+     *
+     * @param out the buffer to write to
+     * @throws IllegalStateException if the graph holds lexicons, which images do not store
+     */
+    void write(ByteBuffer out) {
+        if (lexicons != null) {
+            throw new IllegalStateException("Graphs of several lexicons cannot be written to an image");
+        }
+        out.putInt(root).putInt(wordCount).putInt(nodes.capacity()).putInt(edges.capacity());
+        IntBuffer ints = out.asIntBuffer();
+        ints.put(nodes.duplicate().clear());
+        ints.put(edges.duplicate().clear());
+        out.position(out.position() + 4 * ints.position());
+    }
+
+    /**
+     * Reads a graph written by {@link #write(ByteBuffer)} without copying it: the graph
+     * navigates views of the buffer. The buffer's position is advanced past the graph.
+     *
+     * @param in the buffer to read from
+     * @return the graph
+     */
+    static Dawg read(ByteBuffer in) {
+        int root = in.getInt();
+        int wordCount = in.getInt();
+        int nodeInts = in.getInt();
+        int edgeCount = in.getInt();
+        IntBuffer nodes = slice(in, nodeInts);
+        IntBuffer edges = slice(in, edgeCount);
+        return new Dawg(nodes, edges, root, wordCount);
+    }
+
+    private static IntBuffer slice(ByteBuffer in, int ints) {
+        ByteOrder order = in.order();
+        ByteBuffer bytes = in.slice().order(order);
+        bytes.limit(4 * ints);
+        in.position(in.position() + 4 * ints);
+        return bytes.asIntBuffer();
+    }
+
+    /**
+     * Walks the graph along the given string.
+     *
+     * @param str the letters to follow
+     * @return the node reached, or {@link #NONE} if the string leaves the graph
+     */
+    public int findNode(String str) {
+        if (str == null || str.isEmpty()) {
+            return NONE;
+        }
+
+        int current = root;
+        for (int i = 0; i < str.length(); i++) {
+            int index = Character.toLowerCase(str.charAt(i)) - FIRST_LETTER;
+            if (index < 0 || index >= 26) {
+                return NONE;
+            }
+            current = getChild(current, index);
+            if (current == NONE) {
+                return NONE;
+            }
+        }
+        return current;
+    }
+
+    private void findAllWords(int node, StringBuilder prefix, List<String> words) {
+        if (isCompleteWord(node)) {
+            words.add(prefix.toString());
+        }
+
+        int mask = nodes.get(2 * node) & ~TERMINAL_BIT;
+        int edge = nodes.get(2 * node + 1);
+        while (mask != 0) {
+            int index = Integer.numberOfTrailingZeros(mask);
+            int child = edges.get(edge++);
+            if (lexicon == 0 || leadsToLexicon(child)) {
+                prefix.append((char) (FIRST_LETTER + index));
+                findAllWords(child, prefix, words);
+                prefix.setLength(prefix.length() - 1);
+            }
+            mask &= mask - 1;
+        }
+    }
+
+    /**
+     * A depth-first walk of the graph that stops at each word. For every depth it keeps
+     * the node and the letters of the node not followed yet.
+     */
+    private class WordIterator implements Iterator<String> {
+        private int[] stackNodes = new int[32];
+        private int[] stackMasks = new int[32];
+        private char[] letters = new char[32];
+        private int depth;
+        private String next;
+
+        WordIterator() {
+            stackNodes[0] = root;
+            stackMasks[0] = getChildMask(root);
+            advance();
+        }
+
+        private void advance() {
+            while (depth >= 0) {
+                int mask = stackMasks[depth];
+                if (mask == 0) {
+                    depth--;
+                    continue;
+                }
+                int index = Integer.numberOfTrailingZeros(mask);
+                stackMasks[depth] = mask & (mask - 1);
+                int child = getChild(stackNodes[depth], index);
+                if (depth + 1 == stackNodes.length) {
+                    stackNodes = Arrays.copyOf(stackNodes, 2 * stackNodes.length);
+                    stackMasks = Arrays.copyOf(stackMasks, 2 * stackMasks.length);
+                    letters = Arrays.copyOf(letters, 2 * letters.length);
+                }
+                letters[depth++] = (char) (FIRST_LETTER + index);
+                stackNodes[depth] = child;
+                stackMasks[depth] = getChildMask(child);
+                if (isCompleteWord(child)) {
+                    next = new String(letters, 0, depth);
+                    return;
+                }
+            }
+            next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String word = next;
+            advance();
+            return word;
+        }
+    }
+
+    /**
+     * Builds a minimized graph from words added in sorted order, using the incremental
+     * construction of Daciuk et al. Only the path of the last added word is kept as
+     * mutable state; every node below it is frozen into the flat arrays as soon as it can
+     * no longer change, and equal nodes are looked up in a register so each distinct
+     * suffix is stored once. Words added with lexicon bits build a graph of several
+     * lexicons, where nodes are only equal if their lexicon bits are too.
+     */
+    static class Builder {
+        private int[] nodes = new int[1 << 12];
+        private int[] edges = new int[1 << 12];
+        private int[] lexicons = new int[1 << 11];
+        private int[] lexiconWordCounts;
+        private int nodeCount;
+        private int edgeCount;
+        private int[] register = new int[1 << 12];
+        private int registerSize;
+        private int wordCount;
+
+        // Mutable nodes along the path of the previous word, indexed by depth
+        private int[] pendingMask = new int[32];
+        private int[] pendingLexicons = new int[32];
+        private int[][] pendingChildren = new int[32][ALPHABET_SIZE];
+        private char[] previous = new char[32];
+        private int previousLength;
+        private boolean built;
+
+        Builder() {
+            this(0);
+        }
+
+        /**
+         * Constructs a builder for a graph of several lexicons, whose words are added with
+         * {@link #addWord(CharSequence, int)}.
+         *
+         * @param lexiconCount the number of lexicons, or 0 for a graph of one word list
+         * @throws IllegalArgumentException if there are more than {@link #MAX_LEXICONS} lexicons
+         */
+        Builder(int lexiconCount) {
+            if (lexiconCount < 0 || lexiconCount > MAX_LEXICONS) {
+                throw new IllegalArgumentException("A graph holds at most " + MAX_LEXICONS + " lexicons: " + lexiconCount);
+            }
+            Arrays.fill(register, NONE);
+            lexiconWordCounts = lexiconCount == 0 ? null : new int[lexiconCount];
+        }
+
+        /**
+         * Adds a word. Words must arrive in ascending order; a word equal to the previous
+         * one is ignored.
+         *
+         * @param word the word, using 'a'-'z' and '{' (index 26) as symbols
+         * @return true if the word was new, false if it repeated the previous word
+         * @throws IllegalArgumentException if the word is out of order or contains an invalid symbol
+         */
+        boolean addWord(CharSequence word) {
+            return addWord(word, 0);
+        }
+
+        /**
+         * Adds a word with the bits of the lexicons it is in. Words must arrive in
+         * ascending order, so a word of several lexicons is added once with all its bits.
+         *
+         * @param word        the word, using 'a'-'z' and '{' (index 26) as symbols
+         * @param lexiconBits bit i for lexicon i, or 0 for a graph of one word list
+         * @return true if the word was new, false if it repeated the previous word
+         * @throws IllegalArgumentException if the word is out of order, contains an invalid symbol
+         *                                  or has bits of lexicons the graph does not hold
+         */
+        boolean addWord(CharSequence word, int lexiconBits) {
+            if (lexiconWordCounts == null ? lexiconBits != 0
+                    : lexiconBits == 0 || lexiconBits >>> lexiconWordCounts.length != 0) {
+                throw new IllegalArgumentException("Invalid lexicon bits " + Integer.toBinaryString(lexiconBits)
+                        + " for word: " + word);
+            }
+            if (built) {
+                throw new IllegalStateException("Graph has already been built");
+            }
+            int length = word.length();
+            if (length == 0) {
+                throw new IllegalArgumentException("Word cannot be null or empty");
+            }
+
+            int common = 0;
+            while (common < length && common < previousLength && word.charAt(common) == previous[common]) {
+                common++;
+            }
+            if (common == length && common == previousLength) {
+                return false;
+            }
+            if (common < previousLength && (common == length || word.charAt(common) < previous[common])) {
+                throw new IllegalArgumentException("Words must be added in sorted order: " + word);
+            }
+
+            freezePath(common);
+            ensureDepth(length);
+            for (int depth = common; depth < length; depth++) {
+                char c = word.charAt(depth);
+                int index = c - FIRST_LETTER;
+                if (index < 0 || index >= ALPHABET_SIZE) {
+                    throw new IllegalArgumentException("Invalid character: " + c);
+                }
+                previous[depth] = c;
+                pendingMask[depth + 1] = 0;
+                pendingLexicons[depth + 1] = 0;
+            }
+            pendingMask[length] |= TERMINAL_BIT;
+            pendingLexicons[length] |= lexiconBits;
+            previousLength = length;
+            wordCount++;
+            for (int bits = lexiconBits; bits != 0; bits &= bits - 1) {
+                lexiconWordCounts[Integer.numberOfTrailingZeros(bits)]++;
+            }
+            return true;
+        }
+
+        /**
+         * Adds the words of a graph that all begin with one letter, such as a graph built
+         * by another builder from the words of that letter, so the words of each first
+         * letter can be built on their own thread. Its nodes are copied through the
+         * register, so suffixes it shares with earlier subgraphs are stored once and the
+         * result is the graph a single builder would build. Subgraphs must be added in
+         * ascending letter order and cannot be mixed with words.
+         *
+         * @param graph the graph, of one word list
+         * @param index the letter index all its words begin with
+         * @throws IllegalArgumentException if the graph has a word with another first letter
+         *                                  or holds lexicons
+         * @throws IllegalStateException    if words were added or the letter is out of order
+         */
+        void addSubgraph(Dawg graph, int index) {
+            if (built) {
+                throw new IllegalStateException("Graph has already been built");
+            }
+            if (previousLength != 0 || (pendingMask[0] & -(1 << index)) != 0) {
+                throw new IllegalStateException("Subgraphs must be added in letter order, without words");
+            }
+            if (graph.lexicons != null || lexiconWordCounts != null) {
+                throw new IllegalArgumentException("Subgraphs of several lexicons cannot be added");
+            }
+            int rootMask = graph.nodes.get(2 * graph.root);
+            if ((rootMask & ~(1 << index)) != 0) {
+                throw new IllegalArgumentException("Subgraph has words that do not begin with letter index " + index);
+            }
+            if (rootMask == 0) {
+                return;
+            }
+            int[] copies = new int[graph.getNodeCount()];
+            Arrays.fill(copies, NONE);
+            pendingChildren[0][index] = copyNode(graph, graph.getChild(graph.root, index), copies);
+            pendingMask[0] |= 1 << index;
+            wordCount += graph.wordCount;
+        }
+
+        // Interns the nodes below a node of another graph, children first. The graph is as
+        // deep as its longest word, so the nodes waiting for their children are kept on a
+        // stack of their own rather than the call stack.
+        private int copyNode(Dawg graph, int start, int[] copies) {
+            int[] children = new int[ALPHABET_SIZE];
+            int[] stack = new int[32];
+            int size = 0;
+            stack[size++] = start;
+            while (size > 0) {
+                int node = stack[size - 1];
+                if (copies[node] != NONE) {
+                    size--;
+                    continue;
+                }
+                int mask = graph.nodes.get(2 * node);
+                int edge = graph.nodes.get(2 * node + 1);
+                int childCount = Integer.bitCount(mask & ~TERMINAL_BIT);
+                boolean ready = true;
+                // Push the children last letter first, so they are copied in letter order
+                for (int e = edge + childCount - 1; e >= edge; e--) {
+                    int child = graph.edges.get(e);
+                    if (copies[child] == NONE) {
+                        if (size == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[size++] = child;
+                        ready = false;
+                    }
+                }
+                if (ready) {
+                    for (int bits = mask & ~TERMINAL_BIT; bits != 0; bits &= bits - 1) {
+                        children[Integer.numberOfTrailingZeros(bits)] = copies[graph.edges.get(edge++)];
+                    }
+                    copies[node] = intern(mask, children, 0);
+                    size--;
+                }
+            }
+            return copies[start];
+        }
+
+        /**
+         * Freezes the remaining path and returns the finished graph.
+         *
+         * @return the minimized graph
+         */
+        Dawg build() {
+            freezePath(0);
+            int root = freeze(0);
+            built = true;
+            IntBuffer nodeBuffer = IntBuffer.wrap(Arrays.copyOf(nodes, 2 * nodeCount));
+            IntBuffer edgeBuffer = IntBuffer.wrap(Arrays.copyOf(edges, edgeCount));
+            if (lexiconWordCounts == null) {
+                return new Dawg(nodeBuffer, edgeBuffer, root, wordCount);
+            }
+            return new Dawg(nodeBuffer, edgeBuffer, root, wordCount,
+                    IntBuffer.wrap(Arrays.copyOf(lexicons, nodeCount)), lexiconWordCounts, 0);
+        }
+
+        // Freezes pending nodes deeper than the given depth, attaching each to its parent
+        private void freezePath(int depth) {
+            for (int d = previousLength; d > depth; d--) {
+                int id = freeze(d);
+                int index = previous[d - 1] - FIRST_LETTER;
+                pendingMask[d - 1] |= 1 << index;
+                pendingChildren[d - 1][index] = id;
+            }
+            previousLength = depth;
+        }
+
+        private int freeze(int depth) {
+            return intern(pendingMask[depth], pendingChildren[depth], pendingLexicons[depth]);
+        }
+
+        /**
+         * Returns the id of the node with the given edges, appending it unless an equal
+         * node is in the register.
+         *
+         * @param mask             the child bits and {@link #TERMINAL_BIT}
+         * @param children         the ids of the children, indexed by letter
+         * @param terminalLexicons the lexicon bits of the word ending at the node
+         * @return the id of the node
+         */
+        private int intern(int mask, int[] children, int terminalLexicons) {
+            int reachable = terminalLexicons;
+            for (int bits = mask & ~TERMINAL_BIT; bits != 0; bits &= bits - 1) {
+                reachable |= lexicons[children[Integer.numberOfTrailingZeros(bits)]] >>> MAX_LEXICONS;
+            }
+            int lexiconBits = terminalLexicons | reachable << MAX_LEXICONS;
+            int hash = hash(mask, children) ^ lexiconBits;
+            int slot = hash & (register.length - 1);
+            while (register[slot] != NONE) {
+                int candidate = register[slot];
+                if (lexicons[candidate] == lexiconBits && sameNode(candidate, mask, children)) {
+                    return candidate;
+                }
+                slot = (slot + 1) & (register.length - 1);
+            }
+
+            int id = appendNode(mask, children);
+            if (id >= lexicons.length) {
+                lexicons = Arrays.copyOf(lexicons, lexicons.length * 2);
+            }
+            lexicons[id] = lexiconBits;
+            register[slot] = id;
+            if (++registerSize * 2 > register.length) {
+                growRegister();
+            }
+            return id;
+        }
+
+        private int appendNode(int mask, int[] children) {
+            if (2 * nodeCount + 2 > nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            int childCount = Integer.bitCount(mask & ~TERMINAL_BIT);
+            if (edgeCount + childCount > edges.length) {
+                edges = Arrays.copyOf(edges, Math.max(edges.length * 2, edgeCount + childCount));
+            }
+
+            int id = nodeCount++;
+            nodes[2 * id] = mask;
+            nodes[2 * id + 1] = edgeCount;
+            for (int bits = mask & ~TERMINAL_BIT; bits != 0; bits &= bits - 1) {
+                edges[edgeCount++] = children[Integer.numberOfTrailingZeros(bits)];
+            }
+            return id;
+        }
+
+        private boolean sameNode(int id, int mask, int[] children) {
+            if (nodes[2 * id] != mask) {
+                return false;
+            }
+            int edge = nodes[2 * id + 1];
+            for (int bits = mask & ~TERMINAL_BIT; bits != 0; bits &= bits - 1) {
+                if (edges[edge++] != children[Integer.numberOfTrailingZeros(bits)]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int hash(int mask, int[] children) {
+            int hash = mask;
+            for (int bits = mask & ~TERMINAL_BIT; bits != 0; bits &= bits - 1) {
+                hash = hash * 31 + children[Integer.numberOfTrailingZeros(bits)];
+            }
+            return mix(hash);
+        }
+
+        private int nodeHash(int id) {
+            int mask = nodes[2 * id];
+            int hash = mask;
+            int edge = nodes[2 * id + 1];
+            for (int bits = mask & ~TERMINAL_BIT; bits != 0; bits &= bits - 1) {
+                hash = hash * 31 + edges[edge++];
+            }
+            return mix(hash) ^ lexicons[id];
+        }
+
+        // Spreads the bits of a hash, so that nodes whose children have consecutive ids do
+        // not fill runs of neighbouring register slots
+        private static int mix(int hash) {
+            hash = (hash ^ (hash >>> 16)) * 0x45d9f3b;
+            return hash ^ (hash >>> 16);
+        }
+
+        private void growRegister() {
+            int[] old = register;
+            register = new int[old.length * 2];
+            Arrays.fill(register, NONE);
+            for (int id : old) {
+                if (id != NONE) {
+                    int slot = nodeHash(id) & (register.length - 1);
+                    while (register[slot] != NONE) {
+                        slot = (slot + 1) & (register.length - 1);
+                    }
+                    register[slot] = id;
+                }
+            }
+        }
+
+        private void ensureDepth(int length) {
+            if (length + 1 > pendingMask.length) {
+                int size = Math.max(pendingMask.length * 2, length + 1);
+                pendingMask = Arrays.copyOf(pendingMask, size);
+                pendingLexicons = Arrays.copyOf(pendingLexicons, size);
+                previous = Arrays.copyOf(previous, size);
+                int oldSize = pendingChildren.length;
+                pendingChildren = Arrays.copyOf(pendingChildren, size);
+                for (int i = oldSize; i < size; i++) {
+                    pendingChildren[i] = new int[ALPHABET_SIZE];
+                }
+            }
+        }
+    }
+}
@@ -1,13 +1,35 @@
 package scrabble;
 
 import java.io.BufferedReader;
+import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 public class Dictionary {
 
-    private final Trie trie;
-    private final Set<String> wordSet;
+    private Dawg dawg;
+    private Gaddag gaddag;
+    private AnagramIndex anagramIndex;
+    private final boolean shared;
+
+    /**
+     * Loads a dictionary from a file, which is either a plain word list with one word per
+     * line or a precompiled image written by {@link DictionaryImage}. Images are memory
+     * mapped instead of parsed, and word lists are read and built on all cores by
+     * {@link DictionaryLoader}.
+     *
+     * @param dictionaryFile the word list or image file
+     * @return the loaded dictionary
+     * @throws IOException if an error occurs during reading
+     */
+    public static Dictionary load(String dictionaryFile) throws IOException {
+        if (DictionaryImage.isImage(dictionaryFile)) {
+            return DictionaryImage.map(dictionaryFile);
+        }
+        return new Dictionary(DictionaryLoader.load(dictionaryFile), null);
+    }
 
     /**
      * Constructs a Dictionary instance by loading words from a BufferedReader.
@@ -16,18 +38,74 @@ public class Dictionary {
      * @throws IOException if an error occurs during reading
      */
     public Dictionary(BufferedReader br) throws IOException {
-        this.trie = new Trie();
-        this.wordSet = new HashSet<>();
-        populateDictionary(br);
+        this.shared = false;
+        List<String> words = new ArrayList<>();
+        populateDictionary(br, words);
+        this.dawg = Dawg.fromWords(words);
+    }
+
+    /**
+     * Constructs a Dictionary instance around prebuilt word graphs.
+     *
+     * @param dawg   the word graph
+     * @param gaddag the GADDAG of the same words
+     */
+    Dictionary(Dawg dawg, Gaddag gaddag) {
+        this(dawg, gaddag, false);
     }
 
     /**
-     * Reads and processes words from the provided BufferedReader into the dictionary.
+     * Constructs a Dictionary instance around prebuilt word graphs, which cannot be changed
+     * if the dictionary is shared, as the ones handed out by {@link LexiconRegistry} are.
      *
-     * @param br the BufferedReader containing dictionary words
+     * @param dawg   the word graph
+     * @param gaddag the GADDAG of the same words, or null to build it on first use
+     * @param shared true if words cannot be added
+     */
+    Dictionary(Dawg dawg, Gaddag gaddag, boolean shared) {
+        this.dawg = dawg;
+        this.gaddag = gaddag;
+        this.shared = shared;
+    }
+
+    /**
+     * Returns a dictionary of the same word graphs that cannot be changed, so it can be
+     * handed to every game of a process.
+     *
+     * @return the shared dictionary
+     */
+    Dictionary share() {
+        return new Dictionary(dawg, gaddag, true);
+    }
+
+    /**
+     * Reads the words of a dictionary file, either a plain word list or an image, without
+     * building a dictionary of them.
+     *
+     * @param dictionaryFile the word list or image file
+     * @return the words, in file order for a word list and alphabetical order for an image
      * @throws IOException if an error occurs during reading
      */
-    private void populateDictionary(BufferedReader br) throws IOException {
+    static List<String> readWords(String dictionaryFile) throws IOException {
+        if (DictionaryImage.isImage(dictionaryFile)) {
+            return DictionaryImage.map(dictionaryFile).getDawg().getAllWords();
+        }
+        List<String> words = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(dictionaryFile))) {
+            populateDictionary(br, words);
+        }
+        return words;
+    }
+
+    /**
+     * Reads and processes words from the provided BufferedReader into a collection.
+     * The word graph is built from the words once all lines have been read.
+     *
+     * @param br    the BufferedReader containing dictionary words
+     * @param words the collection to add the words to
+     * @throws IOException if an error occurs during reading
+     */
+    private static void populateDictionary(BufferedReader br, Collection<String> words) throws IOException {
         String line;
         int lineNumber = 0;
 
@@ -41,10 +119,9 @@ public class Dictionary {
             }
 
             try {
-                // Insert the word into the trie and wordSet if valid
-                if (trie.insertWord(line)) {
-                    wordSet.add(line);
-                }
+                // Add the word to the collection if valid
+                Dawg.checkWord(line);
+                words.add(line);
             } catch (IllegalArgumentException e) {
                 // Handle invalid words with a warning
                 System.err.printf("Warning: Invalid word at line %d: '%s'. Error: %s%n", lineNumber, line, e.getMessage());
@@ -59,7 +136,7 @@ public class Dictionary {
      * @return true if the word exists, false otherwise
      */
     public boolean isWordInDictionary(String word) {
-        return trie.containsWord(word);
+        return dawg.containsWord(word);
     }
 
     /**
@@ -69,37 +146,74 @@ public class Dictionary {
      * @return true if the prefix is valid, false otherwise
      */
     public boolean isValidPrefix(String prefix) {
-        return trie.isPrefix(prefix);
+        return dawg.isPrefix(prefix);
     }
 
     /**
-     * Returns an unmodifiable view of the word set.
+     * Returns an unmodifiable view of the words, backed by the word graph: iterating it
+     * walks the graph in alphabetical order and {@code contains} looks the word up, so the
+     * dictionary holds no word as a String.
      *
      * @return a set of words in the dictionary
      */
     public Set<String> getAllWords() {
-        return Collections.unmodifiableSet(wordSet);
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return dawg.iterator();
+            }
+
+            @Override
+            public int size() {
+                return dawg.getWordCount();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && isLowerCase((String) o) && dawg.containsWord((String) o);
+            }
+        };
+    }
+
+    private static boolean isLowerCase(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) < 'a' || word.charAt(i) > 'z') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Gets the total number of words stored in the trie.
+     * Gets the total number of words stored in the word graph.
      *
      * @return the total word count
      */
     public int getTotalWordCount() {
-        return trie.getWordCount();
+        return dawg.getWordCount();
     }
 
     /**
      * Adds a new word to the dictionary.
+     * The word graph is minimized and immutable, so it is rebuilt from its words and the new one.
      *
      * @param word the word to be added
      * @return true if the word was successfully added, false otherwise
+     * @throws UnsupportedOperationException if the dictionary is shared through a {@link LexiconRegistry}
      */
     public boolean insertWordIntoDictionary(String word) {
+        if (shared) {
+            throw new UnsupportedOperationException("A shared dictionary cannot be changed");
+        }
         try {
-            if (trie.insertWord(word)) {
-                wordSet.add(word.toLowerCase().trim());
+            String normalized = word == null ? null : word.toLowerCase().trim();
+            Dawg.checkWord(normalized);
+            if (!dawg.containsWord(normalized)) {
+                List<String> words = dawg.getAllWords();
+                words.add(normalized);
+                dawg = Dawg.fromWords(words);
+                gaddag = null;
+                anagramIndex = null;
                 return true;
             }
         } catch (IllegalArgumentException e) {
@@ -111,45 +225,78 @@ public class Dictionary {
     /**
      * Finds and returns anagrams of a given word from the dictionary.
      * Anagrams are words that contain the same characters as the given word.
-     *
+     * They are looked up in the anagram index, see {@link #getAnagramIndex()}.
      *
      * @param word the word to find anagrams for
      * @return a set of anagrams found in the dictionary
      */
     public Set<String> getAnagrams(String word) {
-        Set<String> anagrams = new HashSet<>();
-        char[] chars = word.toLowerCase().toCharArray();
-        Arrays.sort(chars);
-
-        for (String dictWord : wordSet) {
-            if (dictWord.length() == word.length()) {
-                char[] dictChars = dictWord.toCharArray();
-                Arrays.sort(dictChars);
-                if (Arrays.equals(chars, dictChars)) {
-                    anagrams.add(dictWord);
-                }
-            }
-        }
+        return new HashSet<>(getAnagramIndex().getAnagrams(word));
+    }
+
+    /**
+     * Finds every word that can be formed from some or all of the tiles of a rack,
+     * with '*' for a blank that stands for any letter.
+     *
+     * @param rack the tiles
+     * @return the words, each once
+     * @see AnagramIndex#getSubAnagrams(String)
+     */
+    public List<String> getSubAnagrams(String rack) {
+        return getAnagramIndex().getSubAnagrams(rack);
+    }
 
-        return anagrams;
+    /**
+     * Retrieves the anagram index of the dictionary, building it on first use from the
+     * word graph, so dictionaries mapped from an image still start without building it.
+     *
+     * @return the AnagramIndex object
+     */
+    public synchronized AnagramIndex getAnagramIndex() {
+        if (anagramIndex == null) {
+            anagramIndex = AnagramIndex.fromWords(dawg.getAllWords());
+        }
+        return anagramIndex;
     }
 
     /**
      * Finds words in the dictionary that match a given regex pattern.
+     * Expressions of letters, letter classes and quantifiers are answered by walking the
+     * word graph, see {@link WordPattern#fromRegex(String)}; any other expression is
+     * compiled once and tested against every word.
      *
      * @param pattern the regex pattern to match
      * @return a set of words that match the pattern
      */
     public Set<String> findWordsMatchingPattern(String pattern) {
         Set<String> matchingWords = new HashSet<>();
-        for (String word : wordSet) {
-            if (word.matches(pattern)) {
-                matchingWords.add(word);
+        WordPattern query;
+        try {
+            query = WordPattern.fromRegex(pattern);
+        } catch (IllegalArgumentException e) {
+            Pattern regex = Pattern.compile(pattern);
+            for (String word : dawg) {
+                if (regex.matcher(word).matches()) {
+                    matchingWords.add(word);
+                }
             }
+            return matchingWords;
         }
+        query.forEachMatch(dawg, matchingWords::add);
         return matchingWords;
     }
 
+    /**
+     * Passes every word that matches a pattern to a consumer, in alphabetical order, as
+     * the word graph is walked.
+     *
+     * @param pattern  the pattern, with its length and rack limits
+     * @param consumer the consumer of the words
+     */
+    public void forEachWordMatching(WordPattern pattern, Consumer<String> consumer) {
+        pattern.forEachMatch(dawg, consumer);
+    }
+
     /**
      * Finds and returns a list of words that start with a given prefix.
      *
@@ -157,15 +304,27 @@ public class Dictionary {
      * @return a list of words that start with the prefix
      */
     public List<String> getWordsStartingWith(String prefix) {
-        return trie.findWordsWithPrefix(prefix);
+        return dawg.findWordsWithPrefix(prefix);
+    }
+
+    /**
+     * Retrieves the underlying word graph of the dictionary.
+     *
+     * @return the Dawg object
+     */
+    public Dawg getDawg() {
+        return this.dawg;
     }
 
     /**
-     * Retrieves the underlying Trie structure of the dictionary.
+     * Retrieves the GADDAG of the dictionary, building it on first use.
      *
-     * @return the Trie object
+     * @return the Gaddag object
      */
-    public Trie getTrie() {
-        return this.trie;
+    public synchronized Gaddag getGaddag() {
+        if (gaddag == null) {
+            gaddag = Gaddag.fromWords(dawg.getAllWords());
+        }
+        return gaddag;
     }
 }
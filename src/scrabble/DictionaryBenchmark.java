@@ -0,0 +1,123 @@
+package scrabble;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares load time and memory of the Trie and the Dawg on word lists.
+ * Trie memory is the retained heap after a full GC; Dawg memory is the exact size of
+ * its node and edge arrays, which is below what a heap delta can resolve reliably.
+ * A second table gives the retained heap of a loaded {@link Dictionary}, and what it
+ * held when it also kept every word as a String in a HashSet next to its graph.
+ * Run with the word list files as arguments, or with no arguments to use every
+ * word list bundled in dictionaries_and_examples.
+ */
+public class DictionaryBenchmark {
+    private static final String[] BUNDLED_WORD_LISTS = {
+            "dictionaries_and_examples/sowpods.txt",
+            "dictionaries_and_examples/twl06.txt",
+            "dictionaries_and_examples/enable.txt",
+            "dictionaries_and_examples/dictionary.txt",
+            "dictionaries_and_examples/animals.txt"
+    };
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) throws IOException {
+        String[] files = args.length > 0 ? args : BUNDLED_WORD_LISTS;
+
+        System.out.printf("%-14s %8s | %10s %10s | %10s %10s %9s %9s%n",
+                "word list", "words", "trie ms", "trie MB", "dawg ms", "dawg MB", "nodes", "edges");
+        for (String file : files) {
+            if (!new File(file).isFile()) {
+                System.err.println("Skipping missing word list: " + file);
+                continue;
+            }
+            benchmark(file);
+        }
+
+        System.out.println();
+        System.out.printf("%-14s %8s | %14s %14s%n", "word list", "words", "with set MB", "dictionary MB");
+        for (String file : files) {
+            if (new File(file).isFile()) {
+                footprint(file);
+            }
+        }
+    }
+
+    private static void footprint(String file) throws IOException {
+        long before = usedHeap();
+        Dictionary dictionary = Dictionary.load(file);
+        long dictionaryBytes = usedHeap() - before;
+
+        // The word set the dictionary used to keep beside its graph
+        Set<String> wordSet = new HashSet<>(dictionary.getDawg().getAllWords());
+        long setBytes = usedHeap() - before - dictionaryBytes;
+
+        if (wordSet.size() != dictionary.getTotalWordCount()) {
+            throw new IllegalStateException("Word count mismatch for " + file);
+        }
+        System.out.printf("%-14s %8d | %14.1f %14.1f%n", new File(file).getName(), dictionary.getTotalWordCount(),
+                (dictionaryBytes + setBytes) / 1e6, dictionaryBytes / 1e6);
+    }
+
+    private static void benchmark(String file) throws IOException {
+        List<String> words = readWords(file);
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        Trie trie = new Trie();
+        for (String word : words) {
+            trie.insertWord(word);
+        }
+        long trieMillis = (System.nanoTime() - start) / 1_000_000;
+        long trieBytes = usedHeap() - before;
+        int trieWords = trie.getWordCount();
+        trie = null;
+
+        start = System.nanoTime();
+        Dawg dawg = Dawg.fromWords(words);
+        long dawgMillis = (System.nanoTime() - start) / 1_000_000;
+        long dawgBytes = dawg.getSizeInBytes();
+
+        if (dawg.getWordCount() != trieWords) {
+            throw new IllegalStateException("Word count mismatch for " + file);
+        }
+
+        System.out.printf("%-14s %8d | %10d %10.1f | %10d %10.1f %9d %9d%n",
+                new File(file).getName(), dawg.getWordCount(),
+                trieMillis, trieBytes / 1e6, dawgMillis, dawgBytes / 1e6,
+                dawg.getNodeCount(), dawg.getEdgeCount());
+    }
+
+    private static List<String> readWords(String file) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.toLowerCase().trim();
+                try {
+                    Dawg.checkWord(line);
+                    words.add(line);
+                } catch (IllegalArgumentException e) {
+                    // Skip blank and invalid lines, as Dictionary does
+                }
+            }
+        }
+        return words;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
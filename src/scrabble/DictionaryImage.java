@@ -0,0 +1,122 @@
+package scrabble;
+
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Precompiled binary image of a dictionary's word graphs.
+ * The image holds the DAWG and the GADDAG back to back, so loading it is a single
+ * {@link FileChannel#map} call; the graphs are then navigated straight from the mapped
+ * pages, which the operating system shares between every JVM that maps the same file.
+ *
+ * Layout (little-endian ints): magic, version, then the DAWG and the GADDAG in the
+ * format of {@link Dawg#write(java.nio.ByteBuffer)}.
+ *
+ * Run as a build step to compile a word list:
+ * java scrabble.DictionaryImage word_list_file image_file
+ */
+public class DictionaryImage {
+    static final int MAGIC = 0x47574453; // "SDWG"
+    static final int VERSION = 1;
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private DictionaryImage() {
+    }
+
+    /**
+     * Writes the word graphs of a dictionary to an image file.
+     *
+     * @param dictionary the dictionary to compile
+     * @param imageFile  the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Dictionary dictionary, String imageFile) throws IOException {
+        Dawg dawg = dictionary.getDawg();
+        Dawg gaddag = dictionary.getGaddag().getGraph();
+
+        ByteBuffer buffer = ByteBuffer.allocate(8 + dawg.getImageSize() + gaddag.getImageSize()).order(BYTE_ORDER);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        dawg.write(buffer);
+        gaddag.write(buffer);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(imageFile), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Maps an image file and returns a dictionary that reads its graphs from the mapping.
+     *
+     * @param imageFile the image file
+     * @return the dictionary
+     * @throws IOException if the file cannot be read or is not a dictionary image
+     */
+    public static Dictionary map(String imageFile) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(imageFile), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(BYTE_ORDER);
+
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a dictionary image: " + imageFile);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported dictionary image version " + version + ": " + imageFile);
+        }
+
+        Dawg dawg = Dawg.read(buffer);
+        Gaddag gaddag = new Gaddag(Dawg.read(buffer));
+        return new Dictionary(dawg, gaddag);
+    }
+
+    /**
+     * Checks whether a file starts with the image magic number.
+     *
+     * @param file the file to check
+     * @return true if the file is a dictionary image
+     */
+    public static boolean isImage(String file) {
+        Path path = Paths.get(file);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return Integer.reverseBytes(in.readInt()) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: java scrabble.DictionaryImage <word_list_file> <image_file>");
+            System.exit(1);
+        }
+
+        try {
+            long start = System.nanoTime();
+            Dictionary dictionary = Dictionary.load(args[0]);
+            write(dictionary, args[1]);
+            System.out.printf("Compiled %d words from %s into %s in %d ms%n",
+                    dictionary.getTotalWordCount(), args[0], args[1], (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package scrabble;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Builds the word graph of a plain word list on all processor cores.
+ *
+ * The file is read through a {@link FileChannel} in large chunks, each cut at its last
+ * line break, and every chunk is parsed on a {@link ForkJoinPool} while the next one is
+ * read: lines are lowercased and trimmed on their bytes, and the words are sorted into
+ * one list per first letter. The graph of each first letter is then built as its own task
+ * with a {@link Dawg.Builder}, and the graphs are stitched under one root with
+ * {@link Dawg.Builder#addSubgraph(Dawg, int)}, which merges the suffixes they share, so the
+ * result is the graph a sequential build gives.
+ *
+ * Lines are treated as {@link Dictionary} treats them: blank lines are skipped and lines
+ * that are not a word of the letters a-z are reported with their line number.
+ *
+ * Run to compare it with the sequential load:
+ * java scrabble.DictionaryLoader word_list_file [threads]
+ */
+public class DictionaryLoader {
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int LETTERS = 26;
+
+    private DictionaryLoader() {
+    }
+
+    /**
+     * The words of one chunk of lines, grouped by first letter, and its invalid lines.
+     */
+    private static class Chunk {
+        private final List<List<String>> words = new ArrayList<>(LETTERS);
+        private final List<String> warnings = new ArrayList<>();
+        private final List<Integer> warningLines = new ArrayList<>();
+        private int lineCount;
+
+        Chunk() {
+            for (int i = 0; i < LETTERS; i++) {
+                words.add(new ArrayList<>());
+            }
+        }
+    }
+
+    /**
+     * Builds the word graph of a word list on the common fork/join pool.
+     *
+     * @param wordListFile the word list, one word per line
+     * @return the graph
+     * @throws IOException if the file cannot be read
+     */
+    public static Dawg load(String wordListFile) throws IOException {
+        return load(wordListFile, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the word graph of a word list on the given pool.
+     *
+     * @param wordListFile the word list, one word per line
+     * @param pool         the pool that parses the chunks and builds the subgraphs
+     * @return the graph
+     * @throws IOException if the file cannot be read
+     */
+    public static Dawg load(String wordListFile, ForkJoinPool pool) throws IOException {
+        List<ForkJoinTask<Chunk>> parsing = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Paths.get(wordListFile), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            while (channel.read(buffer) >= 0 || buffer.position() > 0) {
+                boolean end = channel.position() >= channel.size();
+                int length = buffer.position();
+                int cut = length;
+                if (!end) {
+                    while (cut > 0 && buffer.get(cut - 1) != '\n') {
+                        cut--;
+                    }
+                    if (cut == 0) {
+                        // A line longer than the buffer: read more of it
+                        if (length == buffer.capacity()) {
+                            // The cast keeps Java 8 support, where flip() returns a Buffer
+                            buffer = ByteBuffer.allocate(2 * buffer.capacity()).put((ByteBuffer) buffer.flip());
+                        }
+                        continue;
+                    }
+                }
+                byte[] bytes = Arrays.copyOf(buffer.array(), cut);
+                parsing.add(pool.submit(() -> parse(bytes)));
+                buffer.flip().position(cut);
+                buffer.compact();
+            }
+        }
+
+        // Report invalid lines in file order, numbering lines across the chunks
+        List<List<String>> words = new ArrayList<>(LETTERS);
+        for (int i = 0; i < LETTERS; i++) {
+            words.add(new ArrayList<>());
+        }
+        int linesBefore = 0;
+        for (ForkJoinTask<Chunk> task : parsing) {
+            Chunk chunk = task.join();
+            for (int i = 0; i < chunk.warnings.size(); i++) {
+                System.err.printf("Warning: Invalid word at line %d: %s%n",
+                        linesBefore + chunk.warningLines.get(i), chunk.warnings.get(i));
+            }
+            for (int i = 0; i < LETTERS; i++) {
+                words.get(i).addAll(chunk.words.get(i));
+            }
+            linesBefore += chunk.lineCount;
+        }
+
+        List<ForkJoinTask<Dawg>> building = new ArrayList<>();
+        for (List<String> letterWords : words) {
+            building.add(letterWords.isEmpty() ? null : pool.submit(() -> Dawg.fromWords(letterWords)));
+        }
+        Dawg.Builder builder = new Dawg.Builder();
+        for (int i = 0; i < LETTERS; i++) {
+            if (building.get(i) != null) {
+                builder.addSubgraph(building.get(i).join(), i);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Parses the lines of a chunk that ends with a line break or the end of the file.
+     */
+    private static Chunk parse(byte[] bytes) {
+        Chunk chunk = new Chunk();
+        char[] word = new char[64];
+        int start = 0;
+        while (start < bytes.length) {
+            int end = start;
+            while (end < bytes.length && bytes[end] != '\n') {
+                end++;
+            }
+            chunk.lineCount++;
+
+            // Trim as String.trim does, then lowercase and check the letters
+            int from = start;
+            int to = end;
+            while (from < to && (bytes[from] & 0xFF) <= ' ') {
+                from++;
+            }
+            while (to > from && (bytes[to - 1] & 0xFF) <= ' ') {
+                to--;
+            }
+            if (to > from) {
+                if (to - from > word.length) {
+                    word = new char[2 * (to - from)];
+                }
+                boolean valid = true;
+                for (int i = from; i < to && valid; i++) {
+                    int c = bytes[i] | 0x20;
+                    valid = c >= 'a' && c <= 'z' && bytes[i] >= 'A';
+                    word[i - from] = (char) c;
+                }
+                if (valid) {
+                    chunk.words.get(word[0] - 'a').add(new String(word, 0, to - from));
+                } else {
+                    warn(chunk, new String(bytes, start, end - start, Charset.defaultCharset()));
+                }
+            }
+            start = end + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Records a line that is not a plain word of ASCII letters, unless it is a word once
+     * decoded and lowercased as {@link Dictionary} reads it, in the default charset.
+     */
+    private static void warn(Chunk chunk, String line) {
+        String normalized = line.toLowerCase().trim();
+        if (normalized.isEmpty()) {
+            return;
+        }
+        try {
+            Dawg.checkWord(normalized);
+            chunk.words.get(normalized.charAt(0) - 'a').add(normalized);
+        } catch (IllegalArgumentException e) {
+            chunk.warnings.add(String.format("'%s'. Error: %s", normalized, e.getMessage()));
+            chunk.warningLines.add(chunk.lineCount);
+        }
+    }
+
+    public static void main(String[] args) {
+        GameLogger.setQuietByDefault();
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java scrabble.DictionaryLoader <word_list_file> [threads]");
+            System.exit(1);
+        }
+
+        try {
+            int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            Dawg sequential = null;
+            Dawg parallel = null;
+            long sequentialNanos = Long.MAX_VALUE;
+            long parallelNanos = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                try (BufferedReader br = new BufferedReader(new FileReader(args[0]))) {
+                    sequential = new Dictionary(br).getDawg();
+                }
+                sequentialNanos = Math.min(sequentialNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                parallel = load(args[0], pool);
+                parallelNanos = Math.min(parallelNanos, System.nanoTime() - start);
+            }
+            pool.shutdown();
+
+            boolean same = sequential.getWordCount() == parallel.getWordCount()
+                    && sequential.getNodeCount() == parallel.getNodeCount()
+                    && sequential.getEdgeCount() == parallel.getEdgeCount()
+                    && sequential.getAllWords().equals(parallel.getAllWords());
+            System.out.printf("%d words, %d nodes: sequential %d ms, %d threads %d ms (%.2fx), graphs %s%n",
+                    parallel.getWordCount(), parallel.getNodeCount(), sequentialNanos / 1_000_000, threads,
+                    parallelNanos / 1_000_000, (double) sequentialNanos / parallelNanos,
+                    same ? "match" : "DIFFER");
+            if (!same) {
+                System.exit(1);
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
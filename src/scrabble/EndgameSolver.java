@@ -0,0 +1,318 @@
+package scrabble;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the best move once the bag is empty. Both racks are then known, so the rest of
+ * the game can be searched exactly: a negamax search with alpha-beta pruning over every
+ * move and the pass, valued by the final spread, the points the player to move gains over
+ * the other from here to the end of the game, rack penalties included.
+ *
+ * The search deepens one turn at a time until the game is searched to its end or the time
+ * budget is spent, and then plays the best move of the deepest search it finished. Moves
+ * are tried in the generator's order, highest score first, after the best move the last
+ * search found in the same position. Positions are kept in a transposition table keyed by
+ * the Zobrist hashes of the board and both racks, {@link GameBoard#getHash()} and
+ * {@link LetterRack#getHash()}, with the player to move and whether the last turn was a
+ * pass, so positions reached by playing the same moves in another order are searched
+ * once. Moves are played on a copy of the board with {@link GameBoard#makeMove(Move)} and
+ * taken back with {@link GameBoard#unmakeMove()}.
+ *
+ * A game ends when a player plays out, who gains twice the value of the other rack, or
+ * after two passes in a row, when both players lose the value of their own racks.
+ */
+public class EndgameSolver {
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 2000;
+    private static final int RACK_SIZE = 7;
+    private static final int MAX_DEPTH = 64;
+    // Depth stored for values that do not depend on the search depth
+    private static final int SOLVED = Integer.MAX_VALUE;
+    private static final int TABLE_BITS = 18;
+    private static final byte EXACT = 0;
+    private static final byte LOWER_BOUND = 1;
+    private static final byte UPPER_BOUND = 2;
+    private static final int INFINITY = 1_000_000;
+    // Thrown from deep in the search when the time is up, so it needs no stack trace
+    private static final RuntimeException TIME_UP = new RuntimeException("Time up", null, false, false) {
+    };
+
+    private final Dictionary dictionary;
+    private final int[] tileValues;
+    private long timeBudgetMillis;
+
+    private GameBoard board;
+    private ScrabbleMoveGenerator generator;
+    private final LetterRack[] racks = new LetterRack[2];
+    private final long sideKey = ZobristKeys.flag(0);
+    private final long passKey = ZobristKeys.flag(1);
+
+    private final long[] tableKeys = new long[1 << TABLE_BITS];
+    private final int[] tableValues = new int[1 << TABLE_BITS];
+    private final int[] tableDepths = new int[1 << TABLE_BITS];
+    private final byte[] tableBounds = new byte[1 << TABLE_BITS];
+    private final int[] tableMoves = new int[1 << TABLE_BITS];
+
+    private long deadline;
+    private boolean checkTime;
+    private int rootDepth;
+    private Move rootMove;
+    private int horizonHits;
+    private long nodes;
+    private Move lastMove;
+    private int lastValue;
+    private int lastDepth;
+    private boolean lastSolved;
+
+    /**
+     * Constructs a solver.
+     *
+     * @param dictionary the dictionary moves are checked against
+     * @param scoreMap   the tile values, for the rack penalties at the end of the game
+     */
+    public EndgameSolver(Dictionary dictionary, ScoreMap scoreMap) {
+        this.dictionary = dictionary;
+        this.tileValues = new int[LetterRack.BLANK + 1];
+        for (int index = 0; index < LetterRack.BLANK; index++) {
+            tileValues[index] = scoreMap.getScore(String.valueOf((char) ('a' + index)));
+        }
+        this.timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+    }
+
+    /**
+     * Sets how long one decision may search. The first turn is always searched in full,
+     * however long it takes.
+     *
+     * @param timeBudgetMillis the time budget in milliseconds
+     */
+    public void setTimeBudget(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Chooses a move when the bag is empty. The board is only read.
+     *
+     * @param board          the board
+     * @param ours           the tiles of the player to move
+     * @param theirs         the tiles of the other player
+     * @param opponentPassed true if the other player passed last turn, so passing now ends the game
+     * @return the best move found, or null if passing is best or there is no legal move
+     * @throws IllegalArgumentException if a rack holds more tiles than a full rack
+     */
+    public Move chooseMove(GameBoard board, LetterRack ours, LetterRack theirs, boolean opponentPassed) {
+        if (ours.size() > RACK_SIZE || theirs.size() > RACK_SIZE) {
+            throw new IllegalArgumentException("Endgame racks hold at most " + RACK_SIZE + " tiles");
+        }
+        this.board = new GameBoard(board);
+        this.generator = new ScrabbleMoveGenerator(this.board, dictionary);
+        racks[0] = new LetterRack(ours);
+        racks[1] = new LetterRack(theirs);
+        Arrays.fill(tableKeys, 0);
+        Arrays.fill(tableDepths, 0);
+        nodes = 0;
+        lastMove = null;
+        lastValue = 0;
+        lastDepth = 0;
+        lastSolved = false;
+        deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+        checkTime = false;
+
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            rootDepth = depth;
+            rootMove = null;
+            int horizonBefore = horizonHits;
+            try {
+                lastValue = search(0, opponentPassed, depth, -INFINITY, INFINITY);
+            } catch (RuntimeException e) {
+                if (e != TIME_UP) {
+                    throw e;
+                }
+                break;
+            }
+            lastMove = rootMove;
+            lastDepth = depth;
+            checkTime = true;
+            if (horizonHits == horizonBefore) {
+                lastSolved = true;
+                break;
+            }
+        }
+        return lastMove;
+    }
+
+    private long positionKey(int side, boolean passed) {
+        // The other rack's hash is rotated, so swapping the racks changes the key
+        long key = board.getHash() ^ racks[0].getHash() ^ Long.rotateLeft(racks[1].getHash(), 32);
+        if (side != 0) {
+            key ^= sideKey;
+        }
+        return passed ? key ^ passKey : key;
+    }
+
+    private int rackValue(LetterRack rack) {
+        int value = 0;
+        for (int index = 0; index <= LetterRack.BLANK; index++) {
+            value += rack.count(index) * tileValues[index];
+        }
+        return value;
+    }
+
+    /**
+     * Finds the spread the player to move can reach, searching {@code depth} turns ahead.
+     * Positions at the depth are valued as if the game ended there. Every such position
+     * counts a horizon hit, so a search that counts none has seen the whole game.
+     *
+     * @param side   0 for the player of the decision, 1 for the other
+     * @param passed true if the last turn was a pass
+     * @return the spread, exact if it lies between alpha and beta
+     */
+    private int search(int side, boolean passed, int depth, int alpha, int beta) {
+        nodes++;
+        if (checkTime && (nodes & 255) == 0 && System.nanoTime() > deadline) {
+            throw TIME_UP;
+        }
+        LetterRack mover = racks[side];
+        LetterRack other = racks[1 - side];
+        if (depth == 0) {
+            horizonHits++;
+            return rackValue(other) - rackValue(mover);
+        }
+
+        long key = positionKey(side, passed);
+        int slot = (int) key & (tableKeys.length - 1);
+        int tableMove = -1;
+        if (tableKeys[slot] == key && tableDepths[slot] > 0) {
+            tableMove = tableMoves[slot];
+            // The root is always searched, to find its move
+            if (depth != rootDepth && tableDepths[slot] >= depth) {
+                int value = tableValues[slot];
+                byte bound = tableBounds[slot];
+                if (bound == EXACT || (bound == LOWER_BOUND && value >= beta)
+                        || (bound == UPPER_BOUND && value <= alpha)) {
+                    if (tableDepths[slot] != SOLVED) {
+                        // The value depends on a horizon met by an earlier search
+                        horizonHits++;
+                    }
+                    return value;
+                }
+            }
+        }
+
+        generator.setAvailableTiles(mover);
+        generator.generateAllPossibleMoves();
+        List<Move> moves = generator.getTopMoves(Integer.MAX_VALUE);
+
+        int alphaBefore = alpha;
+        int horizonBefore = horizonHits;
+        int best = -INFINITY;
+        int bestMove = -1;
+        // The move from the table first, then every move by score, then the pass
+        for (int k = -1; k <= moves.size(); k++) {
+            int m = k < 0 ? tableMove : k;
+            if (m < 0 || m > moves.size() || (k >= 0 && m == tableMove)) {
+                continue;
+            }
+            int value = m == moves.size()
+                    ? valuePass(side, passed, depth, alpha, beta)
+                    : valueMove(moves.get(m), side, depth, alpha, beta);
+            if (value > best) {
+                best = value;
+                bestMove = m;
+                if (depth == rootDepth) {
+                    rootMove = m == moves.size() ? null : moves.get(m);
+                }
+            }
+            alpha = Math.max(alpha, value);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        tableKeys[slot] = key;
+        tableValues[slot] = best;
+        tableDepths[slot] = horizonHits == horizonBefore ? SOLVED : depth;
+        tableBounds[slot] = best <= alphaBefore ? UPPER_BOUND : best >= beta ? LOWER_BOUND : EXACT;
+        tableMoves[slot] = bestMove;
+        return best;
+    }
+
+    private int valuePass(int side, boolean passed, int depth, int alpha, int beta) {
+        if (passed) {
+            // Two passes in a row end the game
+            return rackValue(racks[1 - side]) - rackValue(racks[side]);
+        }
+        return -search(1 - side, true, depth - 1, -beta, -alpha);
+    }
+
+    private int valueMove(Move move, int side, int depth, int alpha, int beta) {
+        LetterRack mover = racks[side];
+        String word = move.getWord();
+        for (int k = 0; k < word.length(); k++) {
+            int row = move.isVertical() ? move.getRow() + k : move.getRow();
+            int col = move.isVertical() ? move.getCol() : move.getCol() + k;
+            if (!board.hasExistingLetter(row, col)) {
+                char letter = word.charAt(k);
+                mover.take(Character.isUpperCase(letter) ? LetterRack.BLANK : letter - 'a');
+            }
+        }
+        board.makeMove(move);
+
+        int score = move.getScore();
+        int value;
+        try {
+            if (mover.isEmpty()) {
+                value = score + 2 * rackValue(racks[1 - side]);
+            } else {
+                value = score - search(1 - side, false, depth - 1, score - beta, score - alpha);
+            }
+        } finally {
+            board.unmakeMove();
+            for (int k = 0; k < word.length(); k++) {
+                int row = move.isVertical() ? move.getRow() + k : move.getRow();
+                int col = move.isVertical() ? move.getCol() : move.getCol() + k;
+                if (!board.hasExistingLetter(row, col)) {
+                    char letter = word.charAt(k);
+                    mover.put(Character.isUpperCase(letter) ? LetterRack.BLANK : letter - 'a');
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the spread the last decision expects for the player who moves, from the
+     * decision to the end of the game.
+     *
+     * @return the spread in points
+     */
+    public int getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * Returns how many turns ahead the last decision searched.
+     *
+     * @return the depth of the deepest finished search
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * Tells whether the last decision searched the game to its end, so its move is best.
+     *
+     * @return true if the last decision is exact
+     */
+    public boolean isLastSolved() {
+        return lastSolved;
+    }
+
+    /**
+     * Returns the number of positions the last decision visited.
+     *
+     * @return the number of positions
+     */
+    public long getLastNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,86 @@
+package scrabble;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A GADDAG over the dictionary words, stored as a minimized {@link Dawg}.
+ * For every word and every split point the graph holds the reversed prefix, then
+ * {@link #SEPARATOR}, then the rest of the word. The split that keeps the whole word
+ * in the prefix is stored reversed without a separator. A move can then be built
+ * outward from any letter of it: left first, then right after crossing the separator.
+ */
+public class Gaddag {
+    public static final int SEPARATOR = 26;
+    private static final char SEPARATOR_CHAR = (char) ('a' + SEPARATOR);
+
+    private final Dawg graph;
+
+    Gaddag(Dawg graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Builds a GADDAG for the given words.
+     * Strings are generated and sorted one first letter at a time, which keeps the
+     * peak memory to a fraction of the full string set.
+     *
+     * @param words the words to store, lowercase a-z only
+     * @return the GADDAG
+     */
+    public static Gaddag fromWords(Collection<String> words) {
+        Dawg.Builder builder = new Dawg.Builder();
+        List<String> partition = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+
+        for (char first = 'a'; first <= 'z'; first++) {
+            partition.clear();
+            for (String word : words) {
+                for (int split = 1; split <= word.length(); split++) {
+                    if (word.charAt(split - 1) != first) {
+                        continue;
+                    }
+                    sb.setLength(0);
+                    for (int i = split - 1; i >= 0; i--) {
+                        sb.append(word.charAt(i));
+                    }
+                    if (split < word.length()) {
+                        sb.append(SEPARATOR_CHAR).append(word, split, word.length());
+                    }
+                    partition.add(sb.toString());
+                }
+            }
+            Collections.sort(partition);
+            for (String entry : partition) {
+                builder.addWord(entry);
+            }
+        }
+
+        return new Gaddag(builder.build());
+    }
+
+    public int getRoot() {
+        return graph.getRoot();
+    }
+
+    /**
+     * Follows the edge for the given letter index or {@link #SEPARATOR}.
+     *
+     * @param node  the node to start from
+     * @param index the letter index (0 for 'a') or the separator
+     * @return the child node, or {@link Dawg#NONE} if there is no such edge
+     */
+    public int getChild(int node, int index) {
+        return graph.getChild(node, index);
+    }
+
+    public boolean isCompleteWord(int node) {
+        return graph.isCompleteWord(node);
+    }
+
+    public Dawg getGraph() {
+        return graph;
+    }
+}
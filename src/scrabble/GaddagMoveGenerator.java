@@ -0,0 +1,168 @@
+package scrabble;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Move generator that walks the dictionary GADDAG outward from each anchor.
+ * Every move through an anchor is found in one pass: letters are placed leftward from
+ * the anchor, and after the separator the word is extended to the right. Both
+ * directions are searched on the board as it is, without rotating it.
+ *
+ * As in the anchor engine, tiles are not placed left of the anchor on another anchor
+ * square, so each move is found once, from the leftmost anchor it covers.
+ */
+public class GaddagMoveGenerator extends ScrabbleMoveGenerator {
+    private Gaddag gaddag;
+    private int anchorRow;
+    private int anchorCol;
+    private boolean vertical;
+    /** The letters placed so far, the one at offset k from the anchor at index k + dimension */
+    private char[] word;
+
+    public GaddagMoveGenerator(GameBoard gameBoard, Dictionary dictionary) {
+        super(gameBoard, dictionary);
+    }
+
+    @Override
+    protected void prepareSearch() {
+        super.prepareSearch();
+        gaddag = dictionary.getGaddag();
+        int dimension = gameBoard.getDimension();
+        if (word == null || word.length < 2 * dimension) {
+            word = new char[2 * dimension];
+        }
+    }
+
+    @Override
+    protected List<int[]> listSearches() {
+        int dimension = gameBoard.getDimension();
+        BitSet anchors = gameBoard.getAnchorGrid(false);
+        List<int[]> searches = new ArrayList<>();
+        for (int i = anchors.nextSetBit(0); i >= 0; i = anchors.nextSetBit(i + 1)) {
+            searches.add(new int[]{i / dimension, i % dimension, 0});
+            searches.add(new int[]{i / dimension, i % dimension, 1});
+        }
+        return searches;
+    }
+
+    @Override
+    protected void searchAnchor(int row, int col, boolean vertical) {
+        anchorRow = row;
+        anchorCol = col;
+        this.vertical = vertical;
+        generate(0, 0, gaddag.getRoot());
+    }
+
+    @Override
+    protected ScrabbleMoveGenerator createWorker() {
+        return new GaddagMoveGenerator(gameBoard, dictionary);
+    }
+
+    /**
+     * Places a letter at the given offset from the anchor, either from the board or from
+     * the available tiles.
+     *
+     * @param offset the offset from the anchor along the direction of play
+     * @param start  the offset of the leftmost letter placed so far
+     * @param node   the GADDAG node reached by the letters placed so far
+     */
+    private void generate(int offset, int start, int node) {
+        int row = rowAt(offset);
+        int col = colAt(offset);
+
+        if (gameBoard.hasExistingLetter(row, col)) {
+            char letter = gameBoard.getTileLetter(row, col);
+            int child = gaddag.getChild(node, Character.toLowerCase(letter) - 'a');
+            if (child != Dawg.NONE) {
+                goOn(offset, start, letter, child);
+            }
+            return;
+        }
+
+        if (availableTiles.isEmpty()) {
+            return;
+        }
+
+        int crossCheck = gameBoard.getCrossCheck(row, col, vertical);
+        for (char c = 'a'; c <= 'z'; c++) {
+            int child = gaddag.getChild(node, c - 'a');
+            if (child == Dawg.NONE || (crossCheck & (1 << (c - 'a'))) == 0) {
+                continue;
+            }
+            // The letter itself and a blank played as the letter are different moves, try both
+            for (int option = 0; option < 2; option++) {
+                int tile = option == 0 ? c - 'a' : LetterRack.BLANK;
+                if (!availableTiles.has(tile)) {
+                    continue;
+                }
+                char character = option == 0 ? c : Character.toUpperCase(c);
+                availableTiles.take(tile);
+
+                goOn(offset, start, character, child);
+
+                availableTiles.put(tile);
+            }
+        }
+    }
+
+    /**
+     * Adds a placed letter to the word, records it if it completes a word, and keeps
+     * going left, across the separator, or right.
+     */
+    private void goOn(int offset, int start, char letter, int node) {
+        int dimension = gameBoard.getDimension();
+        word[offset + dimension] = letter;
+        if (offset <= 0) {
+            boolean leftFree = !gameBoard.hasExistingLetter(rowAt(offset - 1), colAt(offset - 1));
+            boolean rightFree = !gameBoard.hasExistingLetter(rowAt(1), colAt(1));
+
+            if (gaddag.isCompleteWord(node) && leftFree && rightFree) {
+                recordMove(offset, 1 - offset);
+            }
+            if (canMoveLeft(offset - 1)) {
+                generate(offset - 1, offset - 1, node);
+            }
+
+            int separator = gaddag.getChild(node, Gaddag.SEPARATOR);
+            if (separator != Dawg.NONE && leftFree && isOnBoard(1)) {
+                generate(1, offset, separator);
+            }
+        } else {
+            if (gaddag.isCompleteWord(node) && !gameBoard.hasExistingLetter(rowAt(offset + 1), colAt(offset + 1))) {
+                recordMove(start, offset - start + 1);
+            }
+            if (isOnBoard(offset + 1)) {
+                generate(offset + 1, start, node);
+            }
+        }
+    }
+
+    private boolean canMoveLeft(int offset) {
+        if (!isOnBoard(offset)) {
+            return false;
+        }
+        int row = rowAt(offset);
+        int col = colAt(offset);
+        return gameBoard.hasExistingLetter(row, col) || !gameBoard.isAnchor(row, col);
+    }
+
+    private void recordMove(int start, int length) {
+        recordMove(word, start + gameBoard.getDimension(), length, rowAt(start), colAt(start), vertical);
+    }
+
+    private boolean isOnBoard(int offset) {
+        int row = rowAt(offset);
+        int col = colAt(offset);
+        return row >= 0 && row < gameBoard.getDimension() && col >= 0 && col < gameBoard.getDimension();
+    }
+
+    private int rowAt(int offset) {
+        return vertical ? anchorRow + offset : anchorRow;
+    }
+
+    private int colAt(int offset) {
+        return vertical ? anchorCol : anchorCol + offset;
+    }
+}
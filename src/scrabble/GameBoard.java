@@ -1,8 +1,9 @@
 package scrabble;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.*;
@@ -11,17 +12,35 @@ public class GameBoard {
     private static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
     private static final String DEFAULT_POINT = "*";
     private static final String ANCHOR_POINT = "A";
-    private static final Logger LOGGER = Logger.getLogger(GameGui.class.getName());
-    private static boolean consoleLoggingEnabled = true;
-    private static ConsoleHandler consoleHandler;
-    private static FileHandler fileHandler;
+    private static final int ALL_LETTERS = (1 << 26) - 1;
+    private static final int UNKNOWN_CROSS_CHECK = -1;
+    private static final int WORD_PREMIUM = 0x40;
+    private static final int MULTIPLIER_MASK = 0x3f;
+    private static final Logger LOGGER = GameLogger.getLogger(GameBoard.class);
     public final int dimn;
     private ScoreMap scoreMap;
-    private Tile[][] gameBoard;
-    private LinkedList<int[]> anchorPositions;
+    private byte[] letters;
+    private byte[] transposedLetters;
+    private byte[] premiums;
+    private Tile[] tiles;
+    private int[] letterScores;
+    private BoardView horizontalView;
+    private BoardView verticalView;
+    private BitSet anchors;
+    private BitSet transposedAnchors;
+    private int letterCount;
+    // Zobrist hash of the letters on the board
+    private long hash;
+    // Undo stack of makeMove: per move, where its entries start in the two stacks below
+    private int[] moveFrames;
+    private int moveDepth;
+    private int[] placedSquares;
+    private int placedCount;
+    // Cross-check masks forgotten by makeMove: square, horizontal mask, vertical mask
+    private int[] savedCrossChecks;
+    private int savedCount;
     private LinkedList<int[]> currentMove;
     private LinkedList<int[]> moveIndexes;
-    private boolean ro;
     private Dictionary dictionary;
     private boolean movingDx;
     private boolean humanPlaying;
@@ -30,7 +49,9 @@ public class GameBoard {
     private boolean firstMove;
     private LinkedList<int[]> boardConfig;
     private char currentPlayingChar;
-    private String[][] anchorPoints;
+    private int[] horizontalCrossChecks;
+    private int[] verticalCrossChecks;
+    private Dawg crossCheckDawg;
 
 
     /**
@@ -41,7 +62,6 @@ public class GameBoard {
      * @throws IllegalArgumentException if the dimension is less than or equal to zero
      */
     public GameBoard(int dimn) {
-        setupLogger();
         if (dimn <= 0) {
             throw new IllegalArgumentException("Board dimension must be positive");
         }
@@ -57,29 +77,47 @@ public class GameBoard {
      */
     public GameBoard(int dimn, ScoreMap scoreMap) {
         this(dimn);
-        this.scoreMap = scoreMap;
+        setScoreMap(scoreMap);
+    }
+
+    /**
+     * Constructs a copy of a board: its letters, premiums, anchors and cached cross-checks.
+     * Moves can be tried on the copy with {@link #placeTile(char, int, int)} and taken back
+     * with {@link #removeTile(int, int)}, for example on another thread, without touching
+     * the original.
+     *
+     * @param other the board to copy
+     */
+    public GameBoard(GameBoard other) {
+        this(other.dimn);
+        this.scoreMap = other.scoreMap;
+        this.dictionary = other.dictionary;
+        System.arraycopy(other.letters, 0, letters, 0, letters.length);
+        System.arraycopy(other.transposedLetters, 0, transposedLetters, 0, transposedLetters.length);
+        System.arraycopy(other.premiums, 0, premiums, 0, premiums.length);
+        System.arraycopy(other.horizontalCrossChecks, 0, horizontalCrossChecks, 0, horizontalCrossChecks.length);
+        System.arraycopy(other.verticalCrossChecks, 0, verticalCrossChecks, 0, verticalCrossChecks.length);
+        this.crossCheckDawg = other.crossCheckDawg;
+        this.anchors = (BitSet) other.anchors.clone();
+        this.transposedAnchors = (BitSet) other.transposedAnchors.clone();
+        this.letterCount = other.letterCount;
+        this.hash = other.hash;
     }
 
     /**
      * Enables or disables console logging.
      *
      * @param enabled true to enable console logging, false to disable it
+     * @see GameLogger#setConsoleLogging(boolean)
      */
     public static void setConsoleLogging(boolean enabled) {
-        consoleLoggingEnabled = enabled;
-        if (enabled && !Arrays.asList(LOGGER.getHandlers()).contains(consoleHandler)) {
-            LOGGER.addHandler(consoleHandler);
-            LOGGER.info("Console logging enabled");
-        } else if (!enabled) {
-            LOGGER.removeHandler(consoleHandler);
-            LOGGER.info("Console logging disabled");
-        }
+        GameLogger.setConsoleLogging(enabled);
     }
 
     /**
      * Initializes the game board and related properties.
      * Sets up the initial state of the game, including the board configuration,
-     * anchor positions, current move, move indexes, and anchor points.
+     * anchors, current move and move indexes.
      * Also sets the initial values for various flags such as firstMove, newCharSelected,
      * humanPlaying, and movingDx.
      */
@@ -89,53 +127,24 @@ public class GameBoard {
         this.humanPlaying = false;
         this.movingDx = false;
         this.boardConfig = new LinkedList<>();
-        this.gameBoard = new Tile[dimn][dimn];
-        this.anchorPositions = new LinkedList<>();
+        this.letters = new byte[dimn * dimn];
+        this.transposedLetters = new byte[dimn * dimn];
+        this.premiums = new byte[dimn * dimn];
+        this.tiles = new Tile[dimn * dimn];
+        this.anchors = new BitSet(dimn * dimn);
+        this.transposedAnchors = new BitSet(dimn * dimn);
+        updateAnchor(dimn / 2, dimn / 2);
+        this.moveFrames = new int[16];
+        this.placedSquares = new int[32];
+        this.savedCrossChecks = new int[96];
+        this.horizontalView = new BoardView(this, false);
+        this.verticalView = new BoardView(this, true);
         this.currentMove = new LinkedList<>();
         this.moveIndexes = new LinkedList<>();
-        this.anchorPoints = new String[dimn][dimn];
-        LOGGER.info("Board initialized with dimension " + dimn);
-    }
-
-    /**
-     * Sets up the logger for the GameBoard class.
-     * This method configures the logger to log messages to both a file and the console.
-     * It removes any existing handlers, sets the logging level, and adds custom handlers
-     * with a custom formatter. Console logging can be enabled or disabled based on a flag.
-     *
-     * @throws IOException if there is an error setting up the file handler
-     */
-    private void setupLogger() {
-        try {
-            // Remove all existing handlers
-            for (Handler handler : LOGGER.getHandlers()) {
-                LOGGER.removeHandler(handler);
-            }
-
-            LOGGER.setLevel(Level.ALL);
-
-            // Create custom formatter
-            GameGui.CustomLogFormatter formatter = new GameGui.CustomLogFormatter();
-
-            // Create and add FileHandler (always active)
-            fileHandler = new FileHandler("scrabble_game.log", true);
-            fileHandler.setFormatter(formatter);
-            LOGGER.addHandler(fileHandler);
-
-            // Create ConsoleHandler (will be added/removed based on flag)
-            consoleHandler = new ConsoleHandler();
-            consoleHandler.setFormatter(formatter);
-
-            // Set console logging based on initial flag value
-            setConsoleLogging(consoleLoggingEnabled);
-
-            // Disable parent handlers
-            LOGGER.setUseParentHandlers(false);
-
-            LOGGER.info("Logger setup completed.");
-        } catch (IOException e) {
-            System.err.println("Failed to set up logger: " + e.getMessage());
-        }
+        this.horizontalCrossChecks = new int[dimn * dimn];
+        this.verticalCrossChecks = new int[dimn * dimn];
+        resetCrossChecks();
+        LOGGER.info(() -> "Board initialized with dimension " + dimn);
     }
 
     /**
@@ -150,90 +159,60 @@ public class GameBoard {
      */
     public void configBoard(String input, ScoreMap scoreMap) {
         if (this.scoreMap == null) {
-            this.scoreMap = scoreMap;
+            setScoreMap(scoreMap);
         }
         String[] tiles = input.trim().split("\\s+");
         if (tiles.length != dimn * dimn) {
             throw new IllegalArgumentException("Input does not match board dimensions");
         }
 
-        List<int[]> newTiles = new ArrayList<>();
-
         for (int r = 0; r < dimn; r++) {
             for (int c = 0; c < dimn; c++) {
-                int index = r * dimn + c;
-                String tileStr = tiles[index];
-                Tile tile = createTile(r, c, tileStr, scoreMap);
-                gameBoard[r][c] = tile;
-                if (tileStr.length() == 1) {
-                    newTiles.add(new int[]{r, c});
-                }
+                configSquare(r, c, tiles[r * dimn + c]);
             }
         }
 
-        updateAnchorPositions(newTiles);
+        resetCrossChecks();
     }
 
     /**
-     * Creates a Tile object based on the given letter.
-     * letter comes from board file and is a string representation of the tile,
-     * if letter == ".." then the tile is empty, if letter == "2." then the tile is a double word tile,
-     * if letter == ".L" then the tile is a letter multiplier tile, if letter == "A" then the tile is an anchor point.
-     * Otherwise, the tile is a regular tile with a letter and score.
+     * Sets up a square from its representation in a board file.
+     * If letter == ".." then the square is empty, if letter == "2." then it is a double word
+     * square, if letter == ".2" then it is a double letter square. A single character is a
+     * letter already on the board, which carries no premium.
      *
-     * @param row      the row index of the tile
-     * @param col      the column index of the tile
-     * @param letter   the string representation of the tile
-     * @param scoreMap the score map to be used for scoring tiles
-     * @return a Tile object representing the given letter
-     * @throws IllegalArgumentException if the letter representation is invalid
+     * @param row    the row index of the square
+     * @param col    the column index of the square
+     * @param letter the string representation of the square
+     * @throws IllegalArgumentException if the representation is invalid
      */
-    private Tile createTile(int row, int col, String letter, ScoreMap scoreMap) {
+    private void configSquare(int row, int col, String letter) {
+        int index = row * dimn + col;
         if (letter.length() == 2) {
-            return new Tile(row, col, letter, 0);
+            premiums[index] = (byte) parsePremium(letter);
+            setLetter(row, col, (byte) 0);
         } else if (letter.length() == 1) {
-            int score = scoreMap.getScore(letter.toLowerCase());
-            return new Tile(row, col, letter, score);
+            premiums[index] = 0;
+            setLetter(row, col, (byte) letter.charAt(0));
         } else {
-            LOGGER.severe("Invalid tile format: " + letter);
+            LOGGER.severe(() -> "Invalid tile format: " + letter);
             throw new IllegalArgumentException("Invalid tile format: " + letter);
         }
     }
 
-
     /**
-     * Updates the positions of anchor points on the game board.
-     * If no new tiles are provided, sets the anchor to the center of the board.
-     *
-     * @param newTiles a list of coordinates for the new tiles placed on the board
+     * Encodes a premium square such as "3." or ".2" as its multiplier, with
+     * {@link #WORD_PREMIUM} set for word multipliers. An empty square ".." is 0.
      */
-    private void updateAnchorPositions(List<int[]> newTiles) {
-        LOGGER.info("Updating anchors with new tiles: " + newTiles);
-        if (newTiles.isEmpty()) {
-            anchorPositions.add(new int[]{dimn / 2, dimn / 2});
-            LOGGER.info("No new tiles. Anchor set to center: " + Arrays.toString(new int[]{dimn / 2, dimn / 2}));
-            return;
-        }
-
-        LinkedList<int[]> newAnchors = new LinkedList<>(anchorPositions);
-        for (int[] tile : newTiles) {
-            newAnchors.removeIf(anchor -> Arrays.equals(anchor, tile));
-            addEmptyAdjacentAnchors(newAnchors, tile);
-            LOGGER.info("Added adjacent anchors for tile: " + Arrays.toString(tile));
-        }
-        anchorPositions = newAnchors;
-        LOGGER.info("Anchors updated: " + anchorPositions);
-    }
-
-    private void addEmptyAdjacentAnchors(LinkedList<int[]> newAnchors, int[] tile) {
-        for (int[] dir : DIRECTIONS) {
-            int adjacentRow = tile[0] + dir[0];
-            int adjacentCol = tile[1] + dir[1];
-            int[] adjacent = {adjacentRow, adjacentCol};
-            if (isWithinBoardBounds(adjacent) && getTile(adjacentRow, adjacentCol).isEmpty() && !containsPosition(newAnchors, adjacent)) {
-                newAnchors.add(adjacent);
-            }
+    private static int parsePremium(String square) {
+        if (square.equals("..")) {
+            return 0;
+        } else if (square.charAt(1) == '.') {
+            return WORD_PREMIUM | Character.getNumericValue(square.charAt(0));
+        } else if (square.charAt(0) == '.') {
+            return Character.getNumericValue(square.charAt(1));
         }
+        throw new IllegalArgumentException("Invalid tile type: " + square);
     }
 
     /**
@@ -246,17 +225,6 @@ public class GameBoard {
         return pos[0] >= 0 && pos[0] < dimn && pos[1] >= 0 && pos[1] < dimn;
     }
 
-    /**
-     * Checks if the given position is contained within the list.
-     *
-     * @param list  the list of positions
-     * @param array the position to check
-     * @return true if the position is contained within the list, false otherwise
-     */
-    private boolean containsPosition(LinkedList<int[]> list, int[] array) {
-        return list.stream().anyMatch(a -> Arrays.equals(a, array));
-    }
-
     /**
      * Returns a string representation of the game board.
      * Each tile is represented by its letter, with special formatting for tiles with multipliers.
@@ -269,7 +237,7 @@ public class GameBoard {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < dimn; i++) {
             for (int j = 0; j < dimn; j++) {
-                String letter = gameBoard[i][j].getLetter();
+                String letter = getSquareString(i * dimn + j);
                 sb.append(letter.length() == 2 ? letter : " " + letter).append(j < dimn - 1 ? " " : "\n");
             }
         }
@@ -279,6 +247,8 @@ public class GameBoard {
 
     /**
      * Retrieves the tile at the specified position on the game board.
+     * The board itself is stored as letter and premium codes; the Tile is created from
+     * them on first request and kept until the square changes.
      *
      * @param x the row index
      * @param y the column index
@@ -289,16 +259,156 @@ public class GameBoard {
         if (!isWithinBoardBounds(x, y)) {
             throw new IllegalArgumentException("Invalid position: (" + x + ", " + y + ")");
         }
-        return gameBoard[x][y];
+        int index = x * dimn + y;
+        if (tiles[index] == null) {
+            tiles[index] = createTile(x, y);
+        }
+        return tiles[index];
+    }
+
+    private Tile createTile(int x, int y) {
+        int index = x * dimn + y;
+        int premium = premiums[index];
+        if (letters[index] == 0) {
+            return new Tile(x, y, getSquareString(index), 0);
+        }
+        String letter = String.valueOf((char) letters[index]);
+        int score = scoreMap == null ? 0 : getLetterScore(letter.charAt(0));
+        if (premium == 0) {
+            return new Tile(x, y, letter, score);
+        }
+        return new Tile(x, y, letter, score, premium & MULTIPLIER_MASK, (premium & WORD_PREMIUM) != 0 ? 'W' : 'L');
+    }
+
+    /**
+     * Returns a square as written in a board file: its letter, or the premium or ".." if empty.
+     */
+    private String getSquareString(int index) {
+        if (letters[index] != 0) {
+            return String.valueOf((char) letters[index]);
+        }
+        int premium = premiums[index];
+        if (premium == 0) {
+            return "..";
+        }
+        int multiplier = premium & MULTIPLIER_MASK;
+        return (premium & WORD_PREMIUM) != 0 ? multiplier + "." : "." + multiplier;
+    }
+
+    /**
+     * Puts a letter on a square or clears it, keeping the row-major and transposed letter
+     * grids in sync.
+     *
+     * @param x      the row index
+     * @param y      the column index
+     * @param letter the letter, or 0 to clear the square
+     */
+    private void setLetter(int x, int y, byte letter) {
+        byte old = letters[x * dimn + y];
+        if ((old == 0) != (letter == 0)) {
+            letterCount += letter == 0 ? -1 : 1;
+        }
+        if (old != 0) {
+            hash ^= ZobristKeys.square(x * dimn + y, old);
+        }
+        if (letter != 0) {
+            hash ^= ZobristKeys.square(x * dimn + y, letter);
+        }
+        letters[x * dimn + y] = letter;
+        transposedLetters[y * dimn + x] = letter;
+        tiles[x * dimn + y] = null;
+        updateAnchor(x, y);
+        for (int[] dir : DIRECTIONS) {
+            updateAnchor(x + dir[0], y + dir[1]);
+        }
+        updateAnchor(dimn / 2, dimn / 2);
+    }
+
+    /**
+     * Marks a square as an anchor if it is empty and next to a letter, or clears it.
+     * Only a changed square and its neighbours can change, so the anchors are kept up to
+     * date as letters are placed and removed, without scanning the board. On an empty
+     * board the centre square is the anchor, so the opening move goes through it.
+     */
+    private void updateAnchor(int x, int y) {
+        if (!isWithinBoardBounds(x, y)) {
+            return;
+        }
+        boolean anchor = letters[x * dimn + y] == 0
+                && ((letterCount == 0 && x == dimn / 2 && y == dimn / 2)
+                || (x > 0 && letters[(x - 1) * dimn + y] != 0)
+                || (x < dimn - 1 && letters[(x + 1) * dimn + y] != 0)
+                || (y > 0 && letters[x * dimn + y - 1] != 0)
+                || (y < dimn - 1 && letters[x * dimn + y + 1] != 0));
+        anchors.set(x * dimn + y, anchor);
+        transposedAnchors.set(y * dimn + x, anchor);
+    }
+
+    /**
+     * Returns the view of the board for one direction of play. Moves are searched left to
+     * right along the rows of a view: the row-major view covers horizontal moves and the
+     * transposed view covers vertical moves. Views read the board directly.
+     *
+     * @param transposed true for the view of vertical moves
+     * @return the view
+     */
+    public BoardView getView(boolean transposed) {
+        return transposed ? verticalView : horizontalView;
+    }
+
+    /**
+     * Returns the letter grid for a view, indexed by row * dimension + column of the view.
+     * An empty square holds 0. The array is shared, not copied.
+     */
+    byte[] getLetterGrid(boolean transposed) {
+        return transposed ? transposedLetters : letters;
+    }
+
+    /**
+     * Returns the anchor grid for a view, indexed like {@link #getLetterGrid(boolean)}.
+     * A set bit is an empty square next to a letter. The bit set is shared, not copied.
+     */
+    BitSet getAnchorGrid(boolean transposed) {
+        return transposed ? transposedAnchors : anchors;
     }
 
     /**
-     * Retrieves the current anchor positions on the game board.
+     * Returns the Zobrist hash of the letters on the board, the XOR of the
+     * {@link ZobristKeys#square(int, byte) key} of every letter on its square. It is kept
+     * up to date by every change of a letter, including {@link #placeTile},
+     * {@link #removeTile} and {@link #makeMove}, so equal boards of the same dimension hash
+     * the same however their letters were placed. Premium squares are not part of it.
+     *
+     * @return the hash, 0 for an empty board
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Checks if a square is an anchor: an empty square next to a letter, where a move
+     * can connect to the words already on the board.
+     *
+     * @param x the row index
+     * @param y the column index
+     * @return true if the square is an anchor
+     */
+    public boolean isAnchor(int x, int y) {
+        return anchors.get(x * dimn + y);
+    }
+
+    /**
+     * Retrieves the current anchor positions on the game board, in row order.
+     * On an empty board the centre square is the only anchor.
      *
      * @return a LinkedList containing the coordinates of the anchor positions
      */
     public LinkedList<int[]> getAnchorPositions() {
-        return new LinkedList<>(anchorPositions);
+        LinkedList<int[]> positions = new LinkedList<>();
+        for (int i = anchors.nextSetBit(0); i >= 0; i = anchors.nextSetBit(i + 1)) {
+            positions.add(new int[]{i / dimn, i % dimn});
+        }
+        return positions;
     }
 
 //    public List<Tile> getAdjacentTiles(int x, int y) {
@@ -339,16 +449,22 @@ public class GameBoard {
         if (x < 0 || x >= dimn || y < 0 || y >= dimn) {
             throw new IllegalArgumentException("Invalid coordinates: (" + x + ", " + y + ")");
         }
-        return !gameBoard[x][y].isEmpty();
+        return letters[x * dimn + y] != 0;
     }
 
     /**
      * Retrieves the game board.
      *
-     * @return a 2D array representing the game board
+     * @return a 2D array of the tiles of the game board
      */
     public Tile[][] getGameBoard() {
-        return gameBoard;
+        Tile[][] board = new Tile[dimn][dimn];
+        for (int i = 0; i < dimn; i++) {
+            for (int j = 0; j < dimn; j++) {
+                board[i][j] = getTile(i, j);
+            }
+        }
+        return board;
     }
 
     /**
@@ -367,6 +483,7 @@ public class GameBoard {
      */
     public void setDictionary(Dictionary dictionary) {
         this.dictionary = dictionary;
+        resetCrossChecks();
     }
 
     /**
@@ -391,7 +508,7 @@ public class GameBoard {
             stringBuilder.append(getTile(x, y).getLetter());
             stringBuilder.append(getAdjacentWord(x, y, 'R'));
             playedWord = stringBuilder.toString();
-            LOGGER.info("Word played horizontally: " + playedWord);
+            LOGGER.info(() -> "Word played horizontally: " + playedWord);
             for (int i = 0; i < stringBuilder.length(); i++) {
                 moveIndexes.add(new int[]{x1, y1 + i});
             }
@@ -401,7 +518,7 @@ public class GameBoard {
             stringBuilder.append(getTile(x, y).getLetter());
             stringBuilder.append(getAdjacentWord(x, y, 'D'));
             playedWord = stringBuilder.toString();
-            LOGGER.info("Word played vertically: " + playedWord);
+            LOGGER.info(() -> "Word played vertically: " + playedWord);
             for (int i = 0; i < stringBuilder.length(); i++) {
                 moveIndexes.add(new int[]{x1 + i, y1});
             }
@@ -416,6 +533,17 @@ public class GameBoard {
      */
     public void setScoreMap(ScoreMap scoreMap) {
         this.scoreMap = scoreMap;
+        this.letterScores = null;
+        Arrays.fill(tiles, null);
+    }
+
+    /**
+     * Returns the ScoreMap of the current game.
+     *
+     * @return the ScoreMap, or null if none is set
+     */
+    public ScoreMap getScoreMap() {
+        return scoreMap;
     }
 
     /**
@@ -488,12 +616,12 @@ public class GameBoard {
             int newY = y + dir[1];
 
             // Ensure the tile is within the board bounds and is not empty
-            if (isWithinBoardBounds(newX, newY) && !gameBoard[newX][newY].isEmpty()) {
-                LOGGER.info("Adjacent play found at: (" + x + ", " + y + ")");
+            if (isWithinBoardBounds(newX, newY) && letters[newX * dimn + newY] != 0) {
+                LOGGER.info(() -> "Adjacent play found at: (" + x + ", " + y + ")");
                 return true;
             }
         }
-        LOGGER.info("No adjacent play found at: (" + x + ", " + y + ")");
+        LOGGER.info(() -> "No adjacent play found at: (" + x + ", " + y + ")");
         return false;
     }
 
@@ -575,16 +703,12 @@ public class GameBoard {
 
     /**
      * Checks if all the moves in the current move are in the same column.
-     * Rotates the board to simplify checking column alignment.
      *
      * @param col the column to check
      * @return true if all moves are in the same column, false otherwise
      */
     private boolean areMovesInSameColumn(int col) {
-        rotateBoardCCW();
-        boolean result = currentMove.stream().allMatch(move -> (dimn - move[1] - 1) == (dimn - col - 1));
-        rotateBoardClockwise();
-        return result;
+        return currentMove.stream().allMatch(move -> move[1] == col);
     }
 
     /**
@@ -617,83 +741,57 @@ public class GameBoard {
      * @throws IllegalStateException    if attempting to place a letter on a non-empty tile
      */
     public void placeTile(char letter, int x, int y) {
-        LOGGER.info("Attempting to place character '" + letter + "' at position (" + x + ", " + y + ")");
+        LOGGER.info(() -> "Attempting to place character '" + letter + "' at position (" + x + ", " + y + ")");
 
         // Ensure the tile position is within the board bounds
-        if (!isWithinBoardBounds(new int[]{x, y})) {
+        if (!isWithinBoardBounds(x, y)) {
             throw new IllegalArgumentException("Invalid position: (" + x + ", " + y + ")");
         }
 
-        Tile currentTile = gameBoard[x][y];
-        String currentLetter = currentTile.getLetter();
-        String newLetter = String.valueOf(letter);  // Convert char to String
+        int index = x * dimn + y;
 
-        // Case 1: Empty tile (placeholder "..")
-        if ("..".equals(currentLetter)) {
-            gameBoard[x][y] = new Tile(x, y, newLetter, currentTile.getPointValue());
-            LOGGER.info("Placed character '" + letter + "' on an empty tile at (" + x + ", " + y + ")");
+        // Case 1: Empty square, with or without a multiplier
+        if (letters[index] == 0) {
+            setLetter(x, y, (byte) letter);
+            invalidateCrossChecks(x, y);
+            LOGGER.info(() -> "Placed character '" + letter + "' on " + (premiums[index] == 0 ? "an empty" : "a multiplier")
+                    + " tile at (" + x + ", " + y + ")");
             return;
         }
 
-        // Case 2: Multiplier tile (e.g., "2." or "3L")
-        if (currentLetter.length() == 2 && currentLetter.contains(".")) {
-            int multiplier = Character.getNumericValue(currentLetter.charAt(0));
-            char multiplierType = currentLetter.charAt(1) == '.' ? 'W' : 'L';
-            gameBoard[x][y] = new Tile(x, y, newLetter, currentTile.getPointValue(), multiplier, multiplierType);
-            LOGGER.info("Placed character '" + letter + "' on a multiplier tile at (" + x + ", " + y + ")");
-            return;
-        }
-
-        // Case 3: Non-empty tile or illegal placement
+        // Case 2: Non-empty tile or illegal placement
         throw new IllegalStateException("Cannot place letter on non-empty tile at (" + x + ", " + y + ")");
     }
 
     /**
      * Removes a tile at the specified position on the board.
-     * Handles removing letters from regular tiles or multiplier tiles, and restores placeholders.
+     * Handles removing letters from regular tiles or multiplier tiles; a multiplier square
+     * keeps its multiplier.
      *
      * @param x the x-coordinate of the tile
      * @param y the y-coordinate of the tile
      * @throws IllegalArgumentException if the position is outside the board bounds
      */
     public void removeTile(int x, int y) {
-        LOGGER.info("Attempting to remove character at position (" + x + ", " + y + ")");
+        LOGGER.info(() -> "Attempting to remove character at position (" + x + ", " + y + ")");
 
         // Ensure the tile position is within the board bounds
-        if (!isWithinBoardBounds(new int[]{x, y})) {
+        if (!isWithinBoardBounds(x, y)) {
             throw new IllegalArgumentException("Invalid position: (" + x + ", " + y + ")");
         }
 
-        Tile currentTile = gameBoard[x][y];
-        String currentLetter = currentTile.getLetter();
+        int index = x * dimn + y;
 
         // Early return if the tile is already empty (placeholder)
-        if ("..".equals(currentLetter)) {
-            LOGGER.info("Tile at (" + x + ", " + y + ") is already empty.");
+        if (letters[index] == 0) {
+            LOGGER.info(() -> "Tile at (" + x + ", " + y + ") is already empty.");
             return;
         }
 
-        // Handle single character tiles (regular letters)
-        if (currentLetter.length() == 1 && Character.isLetter(currentLetter.charAt(0))) {
-            gameBoard[x][y] = new Tile(x, y, "..", 0);
-            LOGGER.info("Removed character '" + currentLetter + "' from position (" + x + ", " + y + ")");
-            return;
-        }
-
-        // Handle multiplier tiles (two-character tiles, like "2." or ".L")
-        if (currentLetter.length() == 2) {
-            char firstChar = currentLetter.charAt(0);
-            char secondChar = currentLetter.charAt(1);
-
-            // Replace the letter part of the tile with a placeholder
-            if (Character.isLetter(firstChar)) {
-                gameBoard[x][y] = new Tile(x, y, "." + secondChar, 0);
-                LOGGER.info("Removed character '" + firstChar + "' from multiplier tile at position (" + x + ", " + y + ")");
-            } else if (Character.isLetter(secondChar)) {
-                gameBoard[x][y] = new Tile(x, y, firstChar + ".", 0);
-                LOGGER.info("Removed character '" + secondChar + "' from multiplier tile at position (" + x + ", " + y + ")");
-            }
-        }
+        char currentLetter = (char) letters[index];
+        setLetter(x, y, (byte) 0);
+        invalidateCrossChecks(x, y);
+        LOGGER.info(() -> "Removed character '" + currentLetter + "' from position (" + x + ", " + y + ")");
     }
 
     /**
@@ -732,24 +830,8 @@ public class GameBoard {
         this.movingDx = movingDx;
     }
 
-    /**
-     * Rotates the game board 90 degrees counterclockwise.
-     */
-    public void rotateBoardCCW() {
-        Tile[][] temp = new Tile[dimn][dimn];
-        for (int i = 0; i < dimn; i++) {
-            for (int j = 0; j < dimn; j++) {
-                temp[dimn - j - 1][i] = gameBoard[i][j];
-            }
-        }
-        this.gameBoard = temp;
-        ro = true;
-    }
-
-
     /**
      * Retrieves the letter of the tile at the specified position on the game board.
-     * Handles different types of tiles, including empty tiles and multiplier tiles.
      *
      * @param x the x-coordinate of the tile
      * @param y the y-coordinate of the tile
@@ -758,44 +840,17 @@ public class GameBoard {
      */
     public char getTileLetter(int x, int y) {
 
-        if (!isWithinBoardBounds(new int[]{x, y})) {
-            LOGGER.severe("Invalid position: (" + x + ", " + y + ")");
+        if (!isWithinBoardBounds(x, y)) {
+            LOGGER.severe(() -> "Invalid position: (" + x + ", " + y + ")");
             throw new IllegalArgumentException("Invalid position: (" + x + ", " + y + ")");
         }
 
-        Tile tile = gameBoard[x][y];
-        String letter = tile.getLetter();
-
-        // Return early if the tile is empty
-        if (letter.equals("..")) {
-            return '\0';
-        }
-
-        // If it's a single character, return it
-        if (letter.length() == 1) {
-            return letter.charAt(0);
-        }
-
-        // Handle multiplier tiles with two characters
-        char firstChar = letter.charAt(0);
-        char secondChar = letter.charAt(1);
-
-        if (Character.isLetter(firstChar)) {
-            return firstChar;
-        } else if (Character.isLetter(secondChar)) {
-            return secondChar;
-        }
-
-        // No letter found, return null character
-        LOGGER.info("No letter found at (" + x + ", " + y + "), returning null character.");
-        return '\0';
+        return (char) letters[x * dimn + y];
     }
 
 
     /**
      * Checks if there is already an existing letter in the given index.
-     * This method verifies if the specified position on the game board contains a letter.
-     * It handles both single-character tiles and two-character multiplier tiles.
      *
      * @param x the row index
      * @param y the column index
@@ -805,17 +860,7 @@ public class GameBoard {
         if (x < 0 || x >= dimn || y < 0 || y >= dimn) {
             return false; // Out of bounds, treat as if no character exists
         }
-
-        String letter = gameBoard[x][y].getLetter();
-        if (letter.length() == 1) {
-            char c = letter.charAt(0);
-            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
-        } else if (letter.length() == 2) {
-            char c1 = letter.charAt(0);
-            char c2 = letter.charAt(1);
-            return ((c1 >= 'a' && c1 <= 'z') || (c1 >= 'A' && c1 <= 'Z')) || ((c2 >= 'a' && c2 <= 'z') || (c2 >= 'A' && c2 <= 'Z'));
-        }
-        return false;
+        return letters[x * dimn + y] != 0;
     }
 
 
@@ -849,74 +894,265 @@ public class GameBoard {
      * @return true if the move creates a legal horizontal word, false otherwise
      */
     public boolean isValidDxWord(int i, int j, char letter) {
-        StringBuilder stringBuilder = new StringBuilder();
-        boolean hasAbove = i - 1 >= 0 && hasExistingLetter(i - 1, j);
-        boolean hasBelow = i + 1 < dimn && hasExistingLetter(i + 1, j);
-        // Check if there are letters both above and below the current position
-        if (hasAbove || hasBelow) {
-            if (hasAbove) {
-                stringBuilder.append(getAdjacentWord(i, j, 'U'));
-            }
-            stringBuilder.append(letter);
-            if (hasBelow) {
-                stringBuilder.append(getAdjacentWord(i, j, 'D'));
+        return isAllowed(getCrossCheck(i, j, false), letter);
+    }
+
+    /**
+     * For a letter to be played, checks if the word it forms across
+     * the direction of play is legal.
+     *
+     * @param i        the row index of the tile
+     * @param j        the column index of the tile
+     * @param letter   the letter to be played
+     * @param vertical true if the move is played top to bottom, false if left to right
+     * @return true if the cross word is legal or there is none, false otherwise
+     */
+    public boolean isValidCrossWord(int i, int j, char letter, boolean vertical) {
+        return isAllowed(getCrossCheck(i, j, vertical), letter);
+    }
+
+    /**
+     * Returns the letters that can be played on a square without forming an illegal word
+     * across the direction of play. Bit 0 stands for 'a' and bit 25 for 'z'; all bits are
+     * set when there are no letters on either side across the direction of play.
+     * Masks are computed from the dictionary on first use and cached until a tile next to
+     * them is placed or removed.
+     *
+     * @param i        the row index of the tile
+     * @param j        the column index of the tile
+     * @param vertical true for a move played top to bottom, false for left to right
+     * @return the cross-check mask
+     */
+    public int getCrossCheck(int i, int j, boolean vertical) {
+        Dawg dawg = dictionary.getDawg();
+        if (dawg != crossCheckDawg) {
+            // The dictionary gained a word, every cached mask may be out of date
+            resetCrossChecks();
+            crossCheckDawg = dawg;
+        }
+
+        int[] crossChecks = vertical ? verticalCrossChecks : horizontalCrossChecks;
+        int index = i * dimn + j;
+        if (crossChecks[index] == UNKNOWN_CROSS_CHECK) {
+            crossChecks[index] = computeCrossCheck(dawg, i, j, vertical);
+        }
+        return crossChecks[index];
+    }
+
+    /**
+     * Computes every cross-check mask and the letter scores that are otherwise computed on
+     * first use, so that move searches running on several threads only read the board.
+     * The board must not change while they run.
+     */
+    public void prepareConcurrentSearch() {
+        for (int i = 0; i < dimn; i++) {
+            for (int j = 0; j < dimn; j++) {
+                getCrossCheck(i, j, false);
+                getCrossCheck(i, j, true);
             }
-            if (ro) {
-                stringBuilder.reverse();
+        }
+        getLetterScore('a');
+    }
+
+    private int computeCrossCheck(Dawg dawg, int i, int j, boolean vertical) {
+        String before = getAdjacentWord(i, j, vertical ? 'L' : 'U');
+        String after = getAdjacentWord(i, j, vertical ? 'R' : 'D');
+        if (before.isEmpty() && after.isEmpty()) {
+            return ALL_LETTERS;
+        }
+
+        int prefixNode = followWord(dawg, dawg.getRoot(), before);
+        if (prefixNode == Dawg.NONE) {
+            return 0;
+        }
+        int mask = 0;
+        for (int c = 0; c < 26; c++) {
+            int node = followWord(dawg, dawg.getChild(prefixNode, c), after);
+            if (node != Dawg.NONE && dawg.isCompleteWord(node)) {
+                mask |= 1 << c;
             }
-            // Check if the word exists in the dictionary
-            return dictionary.isWordInDictionary(stringBuilder.toString().toLowerCase());
         }
-        return true;
+        return mask;
     }
 
+    private static int followWord(Dawg dawg, int node, String word) {
+        for (int k = 0; k < word.length() && node != Dawg.NONE; k++) {
+            int index = Character.toLowerCase(word.charAt(k)) - 'a';
+            node = index >= 0 && index < 26 ? dawg.getChild(node, index) : Dawg.NONE;
+        }
+        return node;
+    }
+
+    private static boolean isAllowed(int crossCheck, char letter) {
+        int index = Character.toLowerCase(letter) - 'a';
+        if (index < 0 || index >= 26) {
+            return crossCheck == ALL_LETTERS;
+        }
+        return (crossCheck & (1 << index)) != 0;
+    }
+
+    private void resetCrossChecks() {
+        Arrays.fill(horizontalCrossChecks, UNKNOWN_CROSS_CHECK);
+        Arrays.fill(verticalCrossChecks, UNKNOWN_CROSS_CHECK);
+    }
 
     /**
-     * Rotate the board back to its original position
+     * Forgets the cross-checks that depend on a square whose tile was placed or removed:
+     * the square itself and every square of the runs of letters through it, up to and
+     * including the first empty square at each end.
+     *
+     * @param x the row index of the tile
+     * @param y the column index of the tile
      */
-    public void rotateBoardClockwise() {
-        Tile[][] temp = new Tile[dimn][dimn];
-        for (int i = 0; i < dimn; i++) {
-            for (int j = 0; j < dimn; j++) {
-                temp[j][dimn - i - 1] = gameBoard[i][j];
+    private void invalidateCrossChecks(int x, int y) {
+        invalidateCrossChecks(x, y, false);
+    }
+
+    /**
+     * Forgets the cross-checks that depend on a square, optionally saving them on the undo
+     * stack of {@link #makeMove(CharSequence, int, int, boolean)} first.
+     */
+    private void invalidateCrossChecks(int x, int y, boolean save) {
+        forgetCrossChecks(x, y, save);
+        for (int[] dir : DIRECTIONS) {
+            int i = x + dir[0];
+            int j = y + dir[1];
+            while (isWithinBoardBounds(i, j)) {
+                forgetCrossChecks(i, j, save);
+                if (!hasExistingLetter(i, j)) {
+                    break;
+                }
+                i += dir[0];
+                j += dir[1];
+            }
+        }
+    }
+
+    private void forgetCrossChecks(int x, int y, boolean save) {
+        int index = x * dimn + y;
+        if (save) {
+            // Unknown masks are saved too: one computed while the move is on the board
+            // would be wrong once it is taken back
+            if (savedCount + 3 > savedCrossChecks.length) {
+                savedCrossChecks = Arrays.copyOf(savedCrossChecks, savedCrossChecks.length * 2);
             }
+            savedCrossChecks[savedCount++] = index;
+            savedCrossChecks[savedCount++] = horizontalCrossChecks[index];
+            savedCrossChecks[savedCount++] = verticalCrossChecks[index];
         }
-        this.gameBoard = temp;
-        ro = false;
+        horizontalCrossChecks[index] = UNKNOWN_CROSS_CHECK;
+        verticalCrossChecks[index] = UNKNOWN_CROSS_CHECK;
     }
 
     /**
-     * For a word and index of its last letter finds the indexes of the whole word
+     * Plays a move for a search, to be taken back with {@link #unmakeMove()}. The squares
+     * of the word that are empty get its letters; the others must already hold them. The
+     * squares filled and the cross-check masks forgotten are recorded on an undo stack, so
+     * taking the move back restores the letters, anchors and masks exactly, in time
+     * proportional to the tiles placed, without computing any mask again. Moves can be
+     * nested to any depth and are taken back last first. Nothing is logged, and nothing is
+     * allocated once the undo stack has grown to the depth of the search.
      *
-     * @param x         row index of the last letter
-     * @param y         column index of the last letter
-     * @param isRotated if the board was rotated at the time of choosing the word
-     * @param word      the word
-     * @return the indexes of the whole word
+     * @param word     the letters of the word, uppercase for blanks
+     * @param row      the row of the first letter
+     * @param col      the column of the first letter
+     * @param vertical true if the word is laid top to bottom
+     * @return the number of tiles placed
+     * @throws IllegalArgumentException if the word runs off the board
      */
-    public LinkedList<int[]> calculateWordCoordinates(int x, int y, boolean isRotated, String word) {
-        LinkedList<int[]> list = new LinkedList<>();
-        for (int i = 0; i < word.length(); i++) {
-            if (isRotated) {
-                int[] arr = rotateCoordinateCW(new int[]{x, y - i});
-                list.addFirst(arr);
-            } else {
-                list.addFirst(new int[]{x, y - i});
+    public int makeMove(CharSequence word, int row, int col, boolean vertical) {
+        int endRow = vertical ? row + word.length() - 1 : row;
+        int endCol = vertical ? col : col + word.length() - 1;
+        if (!isWithinBoardBounds(row, col) || !isWithinBoardBounds(endRow, endCol)) {
+            throw new IllegalArgumentException("Move off the board: " + word + " at (" + row + ", " + col + ")");
+        }
+        if (2 * moveDepth + 2 > moveFrames.length) {
+            moveFrames = Arrays.copyOf(moveFrames, moveFrames.length * 2);
+        }
+        moveFrames[2 * moveDepth] = placedCount;
+        moveFrames[2 * moveDepth + 1] = savedCount;
+        moveDepth++;
+
+        int start = placedCount;
+        for (int k = 0; k < word.length(); k++) {
+            int x = vertical ? row + k : row;
+            int y = vertical ? col : col + k;
+            int index = x * dimn + y;
+            if (letters[index] != 0) {
+                continue;
             }
+            if (placedCount == placedSquares.length) {
+                placedSquares = Arrays.copyOf(placedSquares, placedSquares.length * 2);
+            }
+            placedSquares[placedCount++] = index;
+            setLetter(x, y, (byte) word.charAt(k));
+            invalidateCrossChecks(x, y, true);
         }
-        return list;
+        return placedCount - start;
     }
 
     /**
-     * Convert an index on the rotated board to index on the original board
+     * Plays a move for a search, see {@link #makeMove(CharSequence, int, int, boolean)}.
      *
-     * @param arr index x, y array
-     * @return new index
+     * @param move the move
+     * @return the number of tiles placed
      */
-    public int[] rotateCoordinateCW(int[] arr) {
-        int x = arr[1];
-        int y = dimn - arr[0] - 1;
-        return new int[]{x, y};
+    public int makeMove(Move move) {
+        return makeMove(move.getWord(), move.getRow(), move.getCol(), move.isVertical());
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(CharSequence, int, int, boolean)}
+     * and not yet taken back.
+     *
+     * @throws IllegalStateException if there is no such move
+     */
+    public void unmakeMove() {
+        if (moveDepth == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        moveDepth--;
+        int placedStart = moveFrames[2 * moveDepth];
+        int savedStart = moveFrames[2 * moveDepth + 1];
+        while (placedCount > placedStart) {
+            int index = placedSquares[--placedCount];
+            setLetter(index / dimn, index % dimn, (byte) 0);
+        }
+        // Restore last saved first, so a square saved twice gets its oldest mask back
+        while (savedCount > savedStart) {
+            savedCount -= 3;
+            int index = savedCrossChecks[savedCount];
+            horizontalCrossChecks[index] = savedCrossChecks[savedCount + 1];
+            verticalCrossChecks[index] = savedCrossChecks[savedCount + 2];
+        }
+    }
+
+    /**
+     * Returns the number of moves played with {@link #makeMove(CharSequence, int, int, boolean)}
+     * and not yet taken back.
+     *
+     * @return the depth of the undo stack
+     */
+    public int getMoveDepth() {
+        return moveDepth;
+    }
+
+
+    /**
+     * For a word and index of its last letter finds the indexes of the whole word
+     *
+     * @param x          row index of the last letter
+     * @param y          column index of the last letter
+     * @param transposed if the word was chosen on the transposed view
+     * @param word       the word
+     * @return the indexes of the whole word on the board
+     */
+    public LinkedList<int[]> calculateWordCoordinates(int x, int y, boolean transposed, String word) {
+        LinkedList<int[]> list = new LinkedList<>();
+        for (int i = 0; i < word.length(); i++) {
+            list.addFirst(transposed ? new int[]{y - i, x} : new int[]{x, y - i});
+        }
+        return list;
     }
 
     /**
@@ -938,41 +1174,6 @@ public class GameBoard {
     }
 
 
-    /**
-     * Sets the anchor points on the game board.
-     * This method initializes all points as non-anchors and then iterates through the board
-     * to identify positions adjacent to existing letters. These positions are marked as anchor points.
-     */
-    public void updateAnchorPoints() {
-        // Initialize all points as non-anchors
-        for (String[] row : anchorPoints) {
-            Arrays.fill(row, "*");
-        }
-
-        for (int i = 0; i < dimn; i++) {
-            for (int j = 0; j < dimn; j++) {
-                if (hasExistingLetter(i, j)) {
-                    for (int[] dir : DIRECTIONS) {
-                        int newI = i + dir[0];
-                        int newJ = j + dir[1];
-                        if (isWithinBoardBounds(new int[]{newI, newJ}) && !hasExistingLetter(newI, newJ)) {
-                            anchorPoints[newI][newJ] = "A";
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Checks if the board is currently rotated.
-     *
-     * @return true if the board is rotated, false otherwise
-     */
-    public boolean isRo() {
-        return ro;
-    }
-
     /**
      * Finds the number of empty squares to the left of a given square
      *
@@ -994,11 +1195,6 @@ public class GameBoard {
         return count;
     }
 
-    public String[][] getAnchorPoints() {
-        return anchorPoints;
-    }
-
-
     /**
      * Retrieves the adjacent word in the specified direction from the given coordinates.
      *
@@ -1033,8 +1229,8 @@ public class GameBoard {
         StringBuilder str = new StringBuilder();
 
         // Traverse in the specified direction until an empty tile or board boundary is reached
-        while (i >= 0 && i < dimn && j >= 0 && j < dimn && !getTile(i, j).isEmpty()) {
-            str.append(getTile(i, j).getLetter());
+        while (i >= 0 && i < dimn && j >= 0 && j < dimn && letters[i * dimn + j] != 0) {
+            str.append((char) letters[i * dimn + j]);
             i += k1;
             j += k2;
         }
@@ -1056,22 +1252,35 @@ public class GameBoard {
      * @return the score
      */
     private int calculateLetterScore(char c, int x, int y) {
-        // Convert uppercase letters to lowercase
-        char letter = Character.toLowerCase(c);
+        int score = getLetterScore(c);
 
-        // Get base score from scoreMap
-        int score = this.scoreMap.getScore(String.valueOf(letter));
-
-        Tile tile = getTile(x, y);
-
-        // Apply letter multiplier if applicable
-        if (tile.hasMulti() && tile.getMultiType() == 'L') {
-            score *= tile.getMultiplier();
+        // Apply letter multiplier if the square is still free
+        int index = x * dimn + y;
+        int premium = premiums[index];
+        if (letters[index] == 0 && premium != 0 && (premium & WORD_PREMIUM) == 0) {
+            score *= premium;
         }
 
         return score;
     }
 
+    /**
+     * Gets the base score of a letter from the score map, ignoring case.
+     *
+     * @param c the letter
+     * @return the score
+     */
+    private int getLetterScore(char c) {
+        if (letterScores == null) {
+            letterScores = new int[26];
+            for (char letter = 'a'; letter <= 'z'; letter++) {
+                letterScores[letter - 'a'] = scoreMap.getScore(String.valueOf(letter));
+            }
+        }
+        int index = Character.toLowerCase(c) - 'a';
+        return index >= 0 && index < 26 ? letterScores[index] : scoreMap.getScore(String.valueOf(c));
+    }
+
     /**
      * Calculates the score of a word without considering the across words.
      * This method takes into account letter multipliers and word multipliers
@@ -1084,38 +1293,26 @@ public class GameBoard {
     public int calculateWordScore(LinkedList<int[]> coordinates, String word) {
         int score = 0;
         int wordMultiplier = 1;
-        boolean wasRotated = ro;
-
-        // Rotate the board back to its original position if it was rotated
-        if (ro) {
-            rotateBoardClockwise();
-        }
 
-        try {
-            for (int i = 0; i < word.length(); i++) {
-                char letter = word.charAt(i);
-                int[] position = coordinates.get(i);
-                int x = position[0], y = position[1];
-
-                // Calculate the score for the current letter
-                score += calculateLetterScore(letter, x, y);
+        Iterator<int[]> positions = coordinates.iterator();
+        for (int i = 0; i < word.length(); i++) {
+            char letter = word.charAt(i);
+            int[] position = positions.next();
+            int x = position[0], y = position[1];
 
-                Tile tile = getTile(x, y);
-                // Apply word multiplier if applicable
-                if (tile.isEmpty() && tile.hasMulti() && tile.getMultiType() == 'W') {
-                    wordMultiplier *= tile.getMultiplier();
-                }
-            }
+            // Calculate the score for the current letter
+            score += calculateLetterScore(letter, x, y);
 
-            // Apply the word multiplier to the total score
-            score *= wordMultiplier;
-        } finally {
-            // Rotate the board back to its rotated position if it was rotated
-            if (wasRotated) {
-                rotateBoardCCW();
+            // Apply word multiplier if the square is still free
+            int index = x * dimn + y;
+            if (letters[index] == 0 && (premiums[index] & WORD_PREMIUM) != 0) {
+                wordMultiplier *= premiums[index] & MULTIPLIER_MASK;
             }
         }
 
+        // Apply the word multiplier to the total score
+        score *= wordMultiplier;
+
         return score;
     }
 
@@ -1138,47 +1335,103 @@ public class GameBoard {
         allWordCoordinates.add(coordinates);
         allWords.add(word);
 
-        boolean wasRotated = ro;
-        if (ro) {
-            rotateBoardClockwise();
-        }
-
-        try {
-            // Determine the direction of the main word
-            char direction = determineDirection(coordinates);
+        // Determine the direction of the main word
+        char direction = determineDirection(coordinates);
 
-            // Check for any new words formed by placing the tiles
-            for (int i = 0; i < coordinates.size(); i++) {
-                int[] position = coordinates.get(i);
-                int x = position[0], y = position[1];
-                char letter = word.charAt(i);
+        // Check for any new words formed by placing the tiles
+        int i = 0;
+        for (int[] position : coordinates) {
+            int x = position[0], y = position[1];
+            char letter = word.charAt(i++);
 
-                if (!hasExistingLetter(x, y)) {
-                    String newWord = constructNewWord(x, y, letter, direction);
-                    if (newWord.length() > 1) {
-                        allWordCoordinates.add(calculateWordCordinates(x, y, newWord, direction));
-                        allWords.add(newWord);
-                    }
+            if (!hasExistingLetter(x, y)) {
+                String newWord = constructNewWord(x, y, letter, direction);
+                if (newWord.length() > 1) {
+                    allWordCoordinates.add(calculateWordCordinates(x, y, newWord, direction));
+                    allWords.add(newWord);
                 }
             }
+        }
 
-            // Calculate the score for all words
-            for (int i = 0; i < allWords.size(); i++) {
-                score += calculateWordScore(allWordCoordinates.get(i), allWords.get(i));
-            }
+        // Calculate the score for all words
+        for (int k = 0; k < allWords.size(); k++) {
+            score += calculateWordScore(allWordCoordinates.get(k), allWords.get(k));
+        }
+
+        // Add bonus for using all tiles
+        if (allTilesUsed) {
+            score += 50; // Bonus for using all tiles
+        }
 
-            // Add bonus for using all tiles
-            if (allTilesUsed) {
-                score += 50; // Bonus for using all tiles
+        return score;
+    }
+
+    /**
+     * Calculates the same score as {@link #calculateTotalScore(LinkedList, String, boolean)}
+     * for a word given by its start square and direction, reading the board arrays directly
+     * instead of building coordinate lists and cross word strings.
+     *
+     * @param row          row index of the first letter
+     * @param col          column index of the first letter
+     * @param vertical     true if the word is laid top to bottom
+     * @param word         the letters of the word, blanks in uppercase
+     * @param offset       the index of the first letter in {@code word}
+     * @param length       the number of letters
+     * @param allTilesUsed if all the tiles have been used to make the move
+     * @return the total score
+     */
+    public int calculateMoveScore(int row, int col, boolean vertical, char[] word, int offset, int length,
+                                  boolean allTilesUsed) {
+        int step = vertical ? dimn : 1;
+        // Cross words run across the direction of play
+        int crossStep = vertical ? 1 : dimn;
+        int start = row * dimn + col;
+
+        int score = 0;
+        int wordMultiplier = 1;
+        int crossScore = 0;
+        for (int i = 0; i < length; i++) {
+            int index = start + i * step;
+            int letterScore = getLetterScore(word[offset + i]);
+            if (letters[index] != 0) {
+                score += letterScore;
+                continue;
             }
 
-            return score;
-        } finally {
-            // Rotate the board back to its rotated position if it was rotated
-            if (wasRotated) {
-                rotateBoardCCW();
+            int premium = premiums[index];
+            int squareMultiplier = 1;
+            if ((premium & WORD_PREMIUM) != 0) {
+                squareMultiplier = premium & MULTIPLIER_MASK;
+                wordMultiplier *= squareMultiplier;
+            } else if (premium != 0) {
+                letterScore *= premium;
+            }
+            score += letterScore;
+
+            int x = vertical ? row + i : row;
+            int y = vertical ? col : col + i;
+            int crossLetters = 0;
+            int crossBase = 0;
+            int before = vertical ? y : x;
+            for (int k = index - crossStep; --before >= 0 && letters[k] != 0; k -= crossStep) {
+                crossBase += getLetterScore((char) letters[k]);
+                crossLetters++;
+            }
+            int after = vertical ? y : x;
+            for (int k = index + crossStep; ++after < dimn && letters[k] != 0; k += crossStep) {
+                crossBase += getLetterScore((char) letters[k]);
+                crossLetters++;
             }
+            if (crossLetters > 0) {
+                crossScore += (crossBase + letterScore) * squareMultiplier;
+            }
+        }
+
+        score = score * wordMultiplier + crossScore;
+        if (allTilesUsed) {
+            score += 50;
         }
+        return score;
     }
 
     /**
@@ -1243,7 +1496,7 @@ public class GameBoard {
             int[] firstMove = getCurrentMove().getFirst();
             // If same row, it's horizontal. If same column, it's vertical.
             setMovingDx(firstMove[0] == newRow);
-            LOGGER.info("Move orientation determined: " + (isMovingDx() ? "Horizontal" : "Vertical"));
+            LOGGER.info(() -> "Move orientation determined: " + (isMovingDx() ? "Horizontal" : "Vertical"));
         }
     }
 
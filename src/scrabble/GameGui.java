@@ -39,10 +39,8 @@ public class GameGui extends Application {
     private static final String EMPTY_TILE_TITLE = "Empty tile";
     private static final String GAME_OVER_TITLE = "Game is over";
 
-    private static final Logger LOGGER = Logger.getLogger(GameGui.class.getName());
+    private static final Logger LOGGER = GameLogger.getLogger(GameGui.class);
     private static boolean consoleLoggingEnabled = false;
-    private static ConsoleHandler consoleHandler;
-    private static FileHandler fileHandler;
 
     private GameManager gameManager;
     private BoardGui boardGui;
@@ -128,42 +126,14 @@ public void start(Stage primaryStage) {
 
    /**
  * Sets up the logger for the application.
- * This method configures the logger to log all levels of messages,
- * creates and adds a custom formatter, and sets up both file and console handlers.
- * Console logging is enabled or disabled based on the initial flag value.
- * Parent handlers are disabled to prevent double logging.
+ * The file and console handlers are shared by all classes and set up by
+ * {@link GameLogger}; console logging is enabled or disabled here based on
+ * the initial flag value.
  */
 private void setupLogger() {
-    try {
-        // Remove all existing handlers
-        for (Handler handler : LOGGER.getHandlers()) {
-            LOGGER.removeHandler(handler);
-        }
-
-        LOGGER.setLevel(Level.ALL);
-
-        // Create custom formatter
-        CustomLogFormatter formatter = new CustomLogFormatter();
-
-        // Create and add FileHandler (always active)
-        fileHandler = new FileHandler("scrabble_game.log", true);
-        fileHandler.setFormatter(formatter);
-        LOGGER.addHandler(fileHandler);
-
-        // Create ConsoleHandler (will be added/removed based on flag)
-        consoleHandler = new ConsoleHandler();
-        consoleHandler.setFormatter(formatter);
-
-        // Set console logging based on initial flag value
-        setConsoleLogging(consoleLoggingEnabled);
-
-        // Disable parent handlers
-        LOGGER.setUseParentHandlers(false);
-
-        LOGGER.info("Logger setup completed.");
-    } catch (IOException e) {
-        System.err.println("Failed to set up logger: " + e.getMessage());
-    }
+    // Set console logging based on initial flag value
+    setConsoleLogging(consoleLoggingEnabled);
+    LOGGER.info("Logger setup completed.");
 }
 
 
@@ -175,13 +145,8 @@ private void setupLogger() {
  */
 public static void setConsoleLogging(boolean enabled) {
     consoleLoggingEnabled = enabled;
-    if (enabled && !Arrays.asList(LOGGER.getHandlers()).contains(consoleHandler)) {
-        LOGGER.addHandler(consoleHandler);
-        LOGGER.info("Console logging enabled");
-    } else if (!enabled) {
-        LOGGER.removeHandler(consoleHandler);
-        LOGGER.info("Console logging disabled");
-    }
+    GameLogger.setConsoleLogging(enabled);
+    LOGGER.info(enabled ? "Console logging enabled" : "Console logging disabled");
 }
 
 
@@ -224,7 +189,7 @@ private void setupDialogs() {
  */
 private void setupDifficultySelector() {
     difficultySelector = new ComboBox<>();
-    difficultySelector.getItems().addAll("Easy", "Medium", "Hard");
+    difficultySelector.getItems().addAll("Easy", "Medium", "Hard", "Expert");
     difficultySelector.setValue("Hard"); // Default difficulty
     difficultySelector.setOnAction(event -> handleDifficultyChange());
 
@@ -13,9 +13,7 @@ public class GameInitializer {
     }
 
     public Dictionary initializeDictionary(String dictionaryFile) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(dictionaryFile))) {
-            return new Dictionary(br);
-        }
+        return Dictionary.load(dictionaryFile);
     }
 
     public GameBoard initializeBoard(String boardConfigFile, ScoreMap scoreMap) throws IOException {
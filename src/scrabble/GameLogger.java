@@ -0,0 +1,149 @@
+package scrabble;
+
+import java.io.IOException;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logging setup shared by every class of the game.
+ * All loggers are children of the "scrabble" logger, which gets the log file and console
+ * handlers once per JVM, the first time a logger is asked for. The level is taken from
+ * the {@value #LEVEL_PROPERTY} system property, or ALL if it is not set, and can be
+ * changed at run time.
+ *
+ * Quiet mode sets the level to OFF: no log records are created at all, and messages
+ * passed as suppliers are never built. The command line tools run quiet unless a level
+ * is given, e.g. {@code java -Dscrabble.log.level=INFO -jar solver.jar ...}.
+ */
+public final class GameLogger {
+    public static final String LEVEL_PROPERTY = "scrabble.log.level";
+    private static final String LOG_FILE = "scrabble_game.log";
+    private static final Logger ROOT = Logger.getLogger("scrabble");
+
+    private static boolean configured;
+    private static Level level;
+    private static boolean consoleLoggingEnabled = true;
+    private static ConsoleHandler consoleHandler;
+    private static FileHandler fileHandler;
+
+    private GameLogger() {
+    }
+
+    /**
+     * Returns the logger of a class, setting up the handlers first if this is the first one.
+     *
+     * @param type the class that logs
+     * @return the logger
+     */
+    public static Logger getLogger(Class<?> type) {
+        synchronized (GameLogger.class) {
+            applyLevel(getConfiguredLevel());
+        }
+        return Logger.getLogger(type.getName());
+    }
+
+    /**
+     * Reads the level from the system property the first time it is needed.
+     */
+    private static Level getConfiguredLevel() {
+        if (!configured) {
+            configured = true;
+            ROOT.setUseParentHandlers(false);
+            String property = System.getProperty(LEVEL_PROPERTY);
+            level = property == null ? Level.ALL : Level.parse(property.trim().toUpperCase());
+            ROOT.setLevel(level);
+        }
+        return ROOT.getLevel();
+    }
+
+    /**
+     * Sets the lowest level that is logged. Level.OFF is quiet mode.
+     *
+     * @param newLevel the level
+     */
+    public static synchronized void setLevel(Level newLevel) {
+        getConfiguredLevel();
+        level = newLevel;
+        applyLevel(newLevel);
+    }
+
+    public static synchronized Level getLevel() {
+        getConfiguredLevel();
+        return level;
+    }
+
+    /**
+     * Turns quiet mode on, in which nothing is logged, or back off to the level set before.
+     *
+     * @param quiet true for quiet mode
+     */
+    public static synchronized void setQuiet(boolean quiet) {
+        getConfiguredLevel();
+        applyLevel(quiet ? Level.OFF : level);
+    }
+
+    public static synchronized boolean isQuiet() {
+        return getConfiguredLevel() == Level.OFF;
+    }
+
+    /**
+     * Turns quiet mode on unless a level was given with the {@value #LEVEL_PROPERTY}
+     * system property. Used by the command line tools, whose results go to standard
+     * output and do not need a log.
+     */
+    public static void setQuietByDefault() {
+        if (System.getProperty(LEVEL_PROPERTY) == null) {
+            setQuiet(true);
+        }
+    }
+
+    /**
+     * Enables or disables console logging.
+     *
+     * @param enabled true to enable console logging, false to disable it
+     */
+    public static synchronized void setConsoleLogging(boolean enabled) {
+        consoleLoggingEnabled = enabled;
+        if (consoleHandler == null) {
+            // The handlers are not installed yet, the flag is applied when they are
+            return;
+        }
+        ROOT.removeHandler(consoleHandler);
+        if (enabled) {
+            ROOT.addHandler(consoleHandler);
+        }
+    }
+
+    private static void applyLevel(Level newLevel) {
+        ROOT.setLevel(newLevel);
+        if (newLevel != Level.OFF) {
+            installHandlers();
+        }
+    }
+
+    /**
+     * Adds the log file and console handlers, the first time anything may be logged,
+     * so that quiet runs do not create the log file.
+     */
+    private static void installHandlers() {
+        if (fileHandler != null || consoleHandler != null) {
+            return;
+        }
+        GameGui.CustomLogFormatter formatter = new GameGui.CustomLogFormatter();
+        try {
+            fileHandler = new FileHandler(LOG_FILE, true);
+            fileHandler.setFormatter(formatter);
+            ROOT.addHandler(fileHandler);
+        } catch (IOException e) {
+            System.err.println("Failed to set up logger: " + e.getMessage());
+        }
+
+        consoleHandler = new ConsoleHandler();
+        consoleHandler.setFormatter(formatter);
+        if (consoleLoggingEnabled) {
+            ROOT.addHandler(consoleHandler);
+        }
+    }
+}
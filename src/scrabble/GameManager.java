@@ -15,7 +15,10 @@ import java.util.stream.Collectors;
  * players, and tiles.
  */
 public class GameManager {
-    private static final Logger LOGGER = Logger.getLogger(GameManager.class.getName());
+    /** System property naming a leave table for the computer player, see {@link LeaveTable} */
+    public static final String LEAVES_PROPERTY = "scrabble.leaves";
+
+    private static final Logger LOGGER = GameLogger.getLogger(GameManager.class);
     private static final int DEFAULT_BOARD_DIMENSION = 15;
     private static final String TILE_CONFIG_FILE = "dictionaries_and_examples/scrabble_tiles.txt";
 
@@ -38,9 +41,28 @@ public class GameManager {
     private Player winner;
     private boolean humanGaveUpTurn;
     private boolean isFirstMove;
+    private MoveListener moveListener;
+
+    /**
+     * Receives the moves of computer players, for example to collect statistics in
+     * self-play.
+     */
+    public interface MoveListener {
+        /**
+         * Called when a computer player has chosen its move, before it draws new tiles.
+         *
+         * @param player the player that moved
+         * @param word   the word played, empty if the player passed
+         * @param score  the points scored
+         * @param leave  the tiles kept on the rack
+         */
+        void movePlayed(Player player, String word, int score, LetterRack leave);
+    }
 
     /**
      * Constructs a GameManager instance with the specified dictionary and board configuration files.
+     * The computer player weighs its leaves by the table named by the {@code scrabble.leaves}
+     * system property, if it is set.
      *
      * @param dictionaryFile the file containing the dictionary for the game
      * @param boardConfigFile the file containing the board configuration
@@ -54,37 +76,68 @@ public class GameManager {
             initializeScoreMap();
             initializeDictionary(dictionaryFile);
             initializeBoard(boardConfigFile);
-
-            LOGGER.info("Initializing game components...");
-            tileBag = initializeTileBag();
-            humanRack = new Rack(tileBag);
-            computerRack = new Rack(tileBag);
-            humanPlayer = new Player(humanRack);
-            computerPlayer = new ComputerPlayer(computerRack, gameBoard, dictionary);
-
-            LOGGER.log(Level.INFO, "Initial human rack: {0}",
-                    humanRack.getLetters().stream().collect(Collectors.joining(", ")));
-            LOGGER.log(Level.INFO, "Initial computer rack: {0}",
-                    computerRack.getLetters().stream().collect(Collectors.joining(", ")));
-
-            turn = 'H';
-            isGameOver = false;
-            humanScore = 0;
-            lastWordPlayedByHuman = "";
-            lastWordPlayedByComputer = "";
-            winner = null;
-            humanGaveUpTurn = false;
-            this.isFirstMove = true;
-
-            gameBoard.setDictionary(dictionary);
-            LOGGER.info("GameManager initialization complete");
-
+            initializeGame(TILE_CONFIG_FILE, false);
+            initializeLeaveTable();
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to initialize GameManager", e);
             throw e;
         }
     }
 
+    /**
+     * Constructs a game between two computer players, for self-play. The player in the
+     * human seat is a {@link ComputerPlayer} too and moves in {@link #play()} without
+     * input. The dictionary and score map are shared, so many games can be set up
+     * without loading them again.
+     *
+     * @param dictionary      the dictionary for the game
+     * @param scoreMap        the letter scores
+     * @param tileConfigFile  the file of the tile distribution
+     * @param boardConfigFile the file containing the board configuration
+     * @throws IOException if there is an error reading the files
+     */
+    public GameManager(Dictionary dictionary, ScoreMap scoreMap, String tileConfigFile, String boardConfigFile)
+            throws IOException {
+        LOGGER.info(() -> "Initializing self-play GameManager with board config: " + boardConfigFile);
+        this.dictionary = dictionary;
+        this.scoreMap = scoreMap;
+        initializeBoard(boardConfigFile);
+        initializeGame(tileConfigFile, true);
+    }
+
+    /**
+     * Draws the racks, creates the players and sets up the state of a new game.
+     *
+     * @param tileConfigFile the file of the tile distribution
+     * @param selfPlay       true if a computer player takes the human seat
+     */
+    private void initializeGame(String tileConfigFile, boolean selfPlay) {
+        LOGGER.info("Initializing game components...");
+        tileBag = initializeTileBag(tileConfigFile);
+        humanRack = new Rack(tileBag);
+        computerRack = new Rack(tileBag);
+        humanPlayer = selfPlay ? new ComputerPlayer(humanRack, gameBoard, dictionary) : new Player(humanRack);
+        computerPlayer = new ComputerPlayer(computerRack, gameBoard, dictionary);
+
+        LOGGER.log(Level.INFO, "Initial human rack: {0}",
+                humanRack.getLetters().stream().collect(Collectors.joining(", ")));
+        LOGGER.log(Level.INFO, "Initial computer rack: {0}",
+                computerRack.getLetters().stream().collect(Collectors.joining(", ")));
+
+        turn = 'H';
+        isGameOver = false;
+        humanScore = 0;
+        computerScore = 0;
+        lastWordPlayedByHuman = "";
+        lastWordPlayedByComputer = "";
+        winner = null;
+        humanGaveUpTurn = false;
+        this.isFirstMove = true;
+
+        gameBoard.setDictionary(dictionary);
+        LOGGER.info("GameManager initialization complete");
+    }
+
     /**
      * Initializes the score map from the tile configuration file.
      *
@@ -108,13 +161,31 @@ public class GameManager {
      * @throws IOException if there is an error reading the dictionary file
      */
     private void initializeDictionary(String dictionaryFile) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(dictionaryFile))) {
-            dictionary = new Dictionary(br);
+        try {
+            dictionary = LexiconRegistry.getShared().load(dictionaryFile);
         } catch (IOException e) {
             throw new IOException("Error loading dictionary file: " + e.getMessage());
         }
     }
 
+    /**
+     * Maps the leave table of the {@code scrabble.leaves} system property, if it is set, and
+     * hands it to the computer player.
+     *
+     * @throws IOException if the table cannot be read or was built for another tile distribution
+     */
+    private void initializeLeaveTable() throws IOException {
+        String leaveTableFile = System.getProperty(LEAVES_PROPERTY, "").trim();
+        if (leaveTableFile.isEmpty()) {
+            return;
+        }
+        try {
+            setLeaveTable(LeaveTable.map(leaveTableFile, scoreMap));
+        } catch (IOException e) {
+            throw new IOException("Error loading leave table: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Initializes the game board from the specified configuration file.
      *
@@ -140,14 +211,13 @@ public class GameManager {
     }
 
     /**
-     * Initializes the tile bag using the score map.
+     * Initializes the tile bag from the tile distribution file.
      *
+     * @param tileConfigFile the file of the tile distribution
      * @return a new TileBag instance populated with tiles
      */
-    private TileBag initializeTileBag() {
-        // We're already reading the TILE_CONFIG_FILE in initializeScoreMap()
-        // So we can use the existing scoreMap to create the TileBag
-        return new TileBag(TILE_CONFIG_FILE);
+    private TileBag initializeTileBag(String tileConfigFile) {
+        return new TileBag(tileConfigFile);
     }
 
     /**
@@ -455,6 +525,20 @@ public class GameManager {
      * @param coordinates the coordinates where the word is placed on the board
      */
     public void setComputerTray(String word, LinkedList<int[]> coordinates) {
+        replacePlayedTiles(computerPlayer, computerRack, word, coordinates);
+    }
+
+    /**
+     * Takes the tiles of a computer player's move off its rack, reports the move to the
+     * move listener, and draws new tiles from the bag. Must be called before the word
+     * is put on the board.
+     *
+     * @param player      the player that moved
+     * @param rack        the player's rack
+     * @param word        the word played
+     * @param coordinates the coordinates where the word is placed on the board
+     */
+    private void replacePlayedTiles(ComputerPlayer player, Rack rack, String word, LinkedList<int[]> coordinates) {
         LinkedList<Character> list = new LinkedList<>();
         int count = 0;
         for (int[] arr : coordinates) {
@@ -467,18 +551,79 @@ public class GameManager {
         }
         for (Character c : list) {
             if (c >= 'A' && c <= 'Z') {
-                computerRack.extractTileByLetter("*");
+                rack.extractTileByLetter("*");
             } else {
-                computerRack.extractTileByLetter(String.valueOf(c));
+                rack.extractTileByLetter(String.valueOf(c));
             }
         }
+        reportMove(player, word, player.getBestMoveScore(), rack);
         if (tileBag.count() >= list.size()) {
-            computerRack.appendRandomTiles(list.size(), tileBag);
+            rack.appendRandomTiles(list.size(), tileBag);
         } else if (tileBag.count() > 0) {
-            computerRack.appendRandomTiles(tileBag.count(), tileBag);
+            rack.appendRandomTiles(tileBag.count(), tileBag);
+        }
+
+        player.setRack(rack);
+    }
+
+    /**
+     * Lists the tiles a player cannot see: those in the bag and on the opponent's rack.
+     *
+     * @param opponentRack the rack of the other player
+     * @return the unseen tiles
+     */
+    private LetterRack getUnseenTiles(Rack opponentRack) {
+        LetterRack unseen = new LetterRack();
+        for (Tile tile : tileBag.getAllTiles()) {
+            unseen.add(tile.getLetter().charAt(0));
+        }
+        for (Tile tile : opponentRack.getAllTiles()) {
+            unseen.add(tile.getLetter().charAt(0));
         }
+        return unseen;
+    }
+
+    /**
+     * Lists the opponent's tiles for the endgame solver. They are only known to a
+     * player once the bag is empty.
+     *
+     * @param opponentRack the rack of the other player
+     * @return the opponent's tiles, or null if the bag is not empty
+     */
+    private LetterRack getOpponentTiles(Rack opponentRack) {
+        return tileBag.count() == 0 ? getUnseenTiles(opponentRack) : null;
+    }
+
+    private void reportMove(Player player, String word, int score, Rack leave) {
+        if (moveListener != null) {
+            LinkedList<Character> tiles = new LinkedList<>();
+            for (String letter : leave.getLetters()) {
+                tiles.add(letter.charAt(0));
+            }
+            moveListener.movePlayed(player, word, score, new LetterRack(tiles));
+        }
+    }
 
-        computerPlayer.setRack(computerRack);
+    /**
+     * Sets the listener told about every move of a computer player.
+     *
+     * @param moveListener the listener, or null for none
+     */
+    public void setMoveListener(MoveListener moveListener) {
+        this.moveListener = moveListener;
+    }
+
+    /**
+     * Sets the leave values the computer players choose their moves by.
+     *
+     * @param leaveTable the leave values, or null to play the highest scoring move
+     * @see ComputerPlayer#setLeaveTable(LeaveTable)
+     */
+    public void setLeaveTable(LeaveTable leaveTable) {
+        computerPlayer.setLeaveTable(leaveTable);
+        if (humanPlayer instanceof ComputerPlayer) {
+            ((ComputerPlayer) humanPlayer).setLeaveTable(leaveTable);
+        }
     }
 
     /**
@@ -539,6 +684,10 @@ public class GameManager {
     }
 
     private void processHumanTurn() {
+        if (humanPlayer instanceof ComputerPlayer) {
+            processSelfPlayTurn((ComputerPlayer) humanPlayer);
+            return;
+        }
         String word = humanPlayer.getNextMoveWord();
         LinkedList<int[]> coordinates = humanPlayer.getNextMoveCoordinates();
 
@@ -553,10 +702,38 @@ public class GameManager {
         }
     }
 
+    /**
+     * Plays the move of a computer player in the human seat.
+     */
+    private void processSelfPlayTurn(ComputerPlayer player) {
+        player.setUnseenTiles(getUnseenTiles(computerRack));
+        player.setOpponentTiles(getOpponentTiles(computerRack));
+        player.setOpponentPassed(lastWordPlayedByComputer.isEmpty());
+        player.generateNextMove();
+        String word = player.hasNoValidMoves() ? "" : player.getNextMoveWord();
+        if (word.isEmpty()) {
+            LOGGER.info("Self-play player has no valid moves");
+            reportMove(player, "", 0, humanRack);
+        } else {
+            LinkedList<int[]> coordinates = player.getNextMoveCoordinates();
+            LOGGER.log(Level.INFO, "Self-play player playing word: {0} at coordinates: {1}",
+                    new Object[]{word, formatCoordinates(coordinates)});
+            replacePlayedTiles(player, humanRack, word, coordinates);
+            gameBoard.updateBoard(word, coordinates);
+            humanScore += player.getBestMoveScore();
+        }
+        lastWordPlayedByHuman = word;
+        turn = 'C';
+    }
+
     private void processComputerTurn() {
+        computerPlayer.setUnseenTiles(getUnseenTiles(humanRack));
+        computerPlayer.setOpponentTiles(getOpponentTiles(humanRack));
+        computerPlayer.setOpponentPassed(lastWordPlayedByHuman.isEmpty());
         computerPlayer.generateNextMove();
         if (computerPlayer.hasNoValidMoves()) {
             LOGGER.info("Computer has no valid moves");
+            reportMove(computerPlayer, "", 0, computerRack);
             lastWordPlayedByComputer = "";
             turn = 'H';
         } else {
@@ -0,0 +1,301 @@
+package scrabble;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Values of the tiles a player keeps on the rack after a move, the leave.
+ * The table has an entry for every multiset of up to {@link #MAX_LEAVE} tiles that the
+ * tile distribution of a {@link ScoreMap} allows, so a leave is looked up directly by its
+ * index, with no hashing and no missing entries.
+ *
+ * Leaves are numbered by size, then by the count of each tile type in turn, lowest first;
+ * the index of a leave is computed from precomputed counts of the smaller leaves in a pass
+ * over its tile types. Values are kept as shorts in hundredths of a point.
+ *
+ * Layout of a table file (little-endian): magic, version, the number of tile types, each
+ * type's tile and maximum count as ints, the number of entries, then one short per entry.
+ * Tables are written by {@link LeaveTrainer} and memory mapped by {@link #map(String, ScoreMap)}.
+ */
+public class LeaveTable {
+    static final int MAGIC = 0x45564C53; // "SLVE"
+    static final int VERSION = 1;
+    public static final int MAX_LEAVE = 7;
+    /** Leave values are stored in hundredths of a point */
+    public static final int SCALE = 100;
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final char[] tiles;
+    private final int[] caps;
+    /** The tile type of each LetterRack index, or -1 if the tile is not in the distribution */
+    private final int[] typeOfRackIndex;
+    /** skips[t][n][c]: the leaves of n tiles from type t on that have fewer than c of type t */
+    private final int[][][] skips;
+    private final int[] sizeOffsets;
+    private final int size;
+    private final ByteBuffer values;
+    private final int valuesStart;
+
+    /**
+     * Constructs a table for a tile distribution with every value zero.
+     *
+     * @param scoreMap the tile distribution
+     */
+    public LeaveTable(ScoreMap scoreMap) {
+        this(tilesOf(scoreMap), capsOf(scoreMap, tilesOf(scoreMap)), null, 0);
+    }
+
+    private LeaveTable(char[] tiles, int[] caps, ByteBuffer values, int valuesStart) {
+        this.tiles = tiles;
+        this.caps = caps;
+        this.typeOfRackIndex = new int[LetterRack.BLANK + 1];
+        Arrays.fill(typeOfRackIndex, -1);
+        for (int t = 0; t < tiles.length; t++) {
+            typeOfRackIndex[LetterRack.indexOf(tiles[t])] = t;
+        }
+
+        // ways[t][n]: the leaves of exactly n tiles using only types t and up
+        int[][] ways = new int[tiles.length + 1][MAX_LEAVE + 1];
+        ways[tiles.length][0] = 1;
+        for (int t = tiles.length - 1; t >= 0; t--) {
+            for (int n = 0; n <= MAX_LEAVE; n++) {
+                for (int c = 0; c <= Math.min(caps[t], n); c++) {
+                    ways[t][n] += ways[t + 1][n - c];
+                }
+            }
+        }
+        this.skips = new int[tiles.length][MAX_LEAVE + 1][MAX_LEAVE + 1];
+        for (int t = 0; t < tiles.length; t++) {
+            for (int n = 0; n <= MAX_LEAVE; n++) {
+                for (int c = 1; c <= n; c++) {
+                    skips[t][n][c] = skips[t][n][c - 1] + ways[t + 1][n - c + 1];
+                }
+            }
+        }
+        this.sizeOffsets = new int[MAX_LEAVE + 2];
+        for (int n = 0; n <= MAX_LEAVE; n++) {
+            sizeOffsets[n + 1] = sizeOffsets[n] + ways[0][n];
+        }
+        this.size = sizeOffsets[MAX_LEAVE + 1];
+        this.values = values != null ? values : ByteBuffer.allocate(2 * size).order(BYTE_ORDER);
+        this.valuesStart = valuesStart;
+    }
+
+    /**
+     * Lists the tile types of a distribution in LetterRack order, letters then the blank.
+     */
+    private static char[] tilesOf(ScoreMap scoreMap) {
+        List<Character> types = new ArrayList<>();
+        for (int index = 0; index <= LetterRack.BLANK; index++) {
+            char tile = index == LetterRack.BLANK ? '*' : (char) ('a' + index);
+            if (scoreMap.isValidLetter(String.valueOf(tile)) && scoreMap.getFrequency(String.valueOf(tile)) > 0) {
+                types.add(tile);
+            }
+        }
+        char[] tiles = new char[types.size()];
+        for (int t = 0; t < tiles.length; t++) {
+            tiles[t] = types.get(t);
+        }
+        return tiles;
+    }
+
+    private static int[] capsOf(ScoreMap scoreMap, char[] tiles) {
+        int[] caps = new int[tiles.length];
+        for (int t = 0; t < tiles.length; t++) {
+            caps[t] = Math.min(scoreMap.getFrequency(String.valueOf(tiles[t])), MAX_LEAVE);
+        }
+        return caps;
+    }
+
+    /**
+     * Maps a table file read-only. The table must have been built for the same tile
+     * distribution.
+     *
+     * @param tableFile the table file
+     * @param scoreMap  the tile distribution of the game
+     * @return the table
+     * @throws IOException if the file cannot be read, is not a leave table, or was built
+     *                     for another tile distribution
+     */
+    public static LeaveTable map(String tableFile, ScoreMap scoreMap) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(tableFile), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(BYTE_ORDER);
+
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a leave table: " + tableFile);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported leave table version " + version + ": " + tableFile);
+        }
+        char[] tiles = new char[buffer.getInt()];
+        int[] caps = new int[tiles.length];
+        for (int t = 0; t < tiles.length; t++) {
+            tiles[t] = (char) buffer.getInt();
+            caps[t] = buffer.getInt();
+        }
+        char[] expectedTiles = tilesOf(scoreMap);
+        if (!Arrays.equals(tiles, expectedTiles) || !Arrays.equals(caps, capsOf(scoreMap, expectedTiles))) {
+            throw new IOException("Leave table " + tableFile + " was built for another tile distribution");
+        }
+
+        int entries = buffer.getInt();
+        LeaveTable table = new LeaveTable(tiles, caps, buffer, buffer.position());
+        if (entries != table.size || buffer.remaining() < 2 * entries) {
+            throw new IOException("Truncated leave table: " + tableFile);
+        }
+        return table;
+    }
+
+    /**
+     * Writes the table to a file that {@link #map(String, ScoreMap)} can read.
+     *
+     * @param tableFile the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(String tableFile) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + 8 * tiles.length + 2 * size).order(BYTE_ORDER);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(tiles.length);
+        for (int t = 0; t < tiles.length; t++) {
+            buffer.putInt(tiles[t]).putInt(caps[t]);
+        }
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            buffer.putShort(values.getShort(valuesStart + 2 * i));
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(tableFile), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of leaves in the table.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getTypeCount() {
+        return tiles.length;
+    }
+
+    /**
+     * Returns the tile of a type: a lowercase letter, or '*' for the blank.
+     *
+     * @param type the tile type
+     * @return the tile
+     */
+    public char getTile(int type) {
+        return tiles[type];
+    }
+
+    /**
+     * Finds the entry of a leave.
+     *
+     * @param leave the tiles kept
+     * @return the index of the leave, or -1 if it has more than {@link #MAX_LEAVE} tiles,
+     *         more of a tile than the distribution holds, or a tile outside it
+     */
+    public int indexOf(LetterRack leave) {
+        int remaining = leave.size();
+        if (remaining > MAX_LEAVE) {
+            return -1;
+        }
+        int index = sizeOffsets[remaining];
+        for (int rackIndex = 0; rackIndex <= LetterRack.BLANK && remaining > 0; rackIndex++) {
+            int count = leave.count(rackIndex);
+            if (count == 0) {
+                continue;
+            }
+            int type = typeOfRackIndex[rackIndex];
+            if (type < 0 || count > caps[type]) {
+                return -1;
+            }
+            index += skips[type][remaining][count];
+            remaining -= count;
+        }
+        // Tiles that are neither letters nor blanks are in the size but have no count
+        return remaining == 0 ? index : -1;
+    }
+
+    /**
+     * Returns the value of a leave in hundredths of a point, 0 if it is not in the table.
+     *
+     * @param leave the tiles kept
+     * @return the value times {@link #SCALE}
+     */
+    public int getScaledValue(LetterRack leave) {
+        int index = indexOf(leave);
+        return index < 0 ? 0 : values.getShort(valuesStart + 2 * index);
+    }
+
+    /**
+     * Returns the value of a leave in points, 0 if it is not in the table.
+     *
+     * @param leave the tiles kept
+     * @return the value
+     */
+    public double getValue(LetterRack leave) {
+        return getScaledValue(leave) / (double) SCALE;
+    }
+
+    /**
+     * Sets the value of an entry, rounded to hundredths of a point. Only tables built in
+     * memory can be changed, not mapped ones.
+     *
+     * @param index the index of the leave
+     * @param value the value in points
+     */
+    public void setValue(int index, double value) {
+        long scaled = Math.round(value * SCALE);
+        values.putShort(valuesStart + 2 * index, (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, scaled)));
+    }
+
+    /**
+     * Visits every leave in index order.
+     *
+     * @param action receives the count of each tile type, in an array reused between
+     *               calls, and the index of the leave
+     */
+    public void forEachLeave(ObjIntConsumer<int[]> action) {
+        int[] counts = new int[tiles.length];
+        int index = 0;
+        for (int n = 0; n <= MAX_LEAVE; n++) {
+            index = visitLeaves(counts, 0, n, index, action);
+        }
+    }
+
+    private int visitLeaves(int[] counts, int type, int remaining, int index, ObjIntConsumer<int[]> action) {
+        if (type == tiles.length) {
+            if (remaining == 0) {
+                action.accept(counts, index++);
+            }
+            return index;
+        }
+        for (int c = 0; c <= Math.min(caps[type], remaining); c++) {
+            counts[type] = c;
+            index = visitLeaves(counts, type + 1, remaining - c, index, action);
+        }
+        counts[type] = 0;
+        return index;
+    }
+}
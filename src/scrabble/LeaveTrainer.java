@@ -0,0 +1,285 @@
+package scrabble;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds a {@link LeaveTable} from self-play. Computer players play whole games through
+ * the {@link GameManager} loop on several threads. Every time a player keeps tiles and
+ * draws from the bag, the leave is paired with the points the same player scores on its
+ * next turn; a leave is worth how far that is above the average move.
+ *
+ * Only a small part of all leaves comes up in play, so the table is filled from a model:
+ * a value for each tile plus a value for each pair of tiles kept together, fitted to the
+ * observed leaves by weighted least squares. Leaves seen often enough move towards their
+ * own average.
+ *
+ * Usage: java scrabble.LeaveTrainer dictionary_file tile_config_file board_file leave_file [games] [threads]
+ */
+public class LeaveTrainer {
+    private static final int DEFAULT_GAMES = 1000;
+    // Observations a leave needs to count as much as the model
+    private static final double PRIOR_WEIGHT = 25;
+    // Keeps the values of rarely seen tiles and pairs near zero
+    private static final double RIDGE = 10;
+
+    private final Dictionary dictionary;
+    private final ScoreMap scoreMap;
+    private final String tileConfigFile;
+    private final String boardConfigFile;
+    private final LeaveTable table;
+
+    public LeaveTrainer(Dictionary dictionary, ScoreMap scoreMap, String tileConfigFile, String boardConfigFile) {
+        this.dictionary = dictionary;
+        this.scoreMap = scoreMap;
+        this.tileConfigFile = tileConfigFile;
+        this.boardConfigFile = boardConfigFile;
+        this.table = new LeaveTable(scoreMap);
+    }
+
+    /**
+     * The next-turn scores seen after one leave.
+     */
+    private static class Observation {
+        private final int[] counts;
+        private double scoreSum;
+        private int count;
+
+        Observation(int[] counts) {
+            this.counts = counts;
+        }
+
+        void add(double score, int times) {
+            scoreSum += score;
+            count += times;
+        }
+    }
+
+    /**
+     * Plays self-play games on several threads and builds the leave table from them.
+     *
+     * @param games   the number of games
+     * @param threads the number of threads
+     * @return the table
+     * @throws IOException if the board or tile files cannot be read
+     */
+    public LeaveTable train(int games, int threads) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Map<Integer, Observation> observations = new HashMap<>();
+        try {
+            List<Future<Map<Integer, Observation>>> results = new ArrayList<>();
+            for (int k = 0; k < threads; k++) {
+                int share = games / threads + (k < games % threads ? 1 : 0);
+                results.add(workers.submit(() -> playGames(share)));
+            }
+            for (Future<Map<Integer, Observation>> result : results) {
+                merge(observations, result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while training", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Self-play failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        fillTable(observations);
+        return table;
+    }
+
+    private static void merge(Map<Integer, Observation> into, Map<Integer, Observation> from) {
+        for (Map.Entry<Integer, Observation> entry : from.entrySet()) {
+            Observation observation = entry.getValue();
+            into.computeIfAbsent(entry.getKey(), index -> new Observation(observation.counts))
+                    .add(observation.scoreSum, observation.count);
+        }
+    }
+
+    private Map<Integer, Observation> playGames(int games) throws IOException {
+        Map<Integer, Observation> observations = new HashMap<>();
+        for (int g = 0; g < games; g++) {
+            GameManager game = new GameManager(dictionary, scoreMap, tileConfigFile, boardConfigFile);
+            Map<Player, Integer> pending = new IdentityHashMap<>();
+            game.setMoveListener((player, word, score, leave) -> {
+                Integer previous = pending.remove(player);
+                if (previous != null) {
+                    observations.get(previous).add(score, 1);
+                }
+                // A leave only matters when the player draws to it, which it does not after a pass
+                int index = table.indexOf(leave);
+                if (!word.isEmpty() && game.getTileBag().count() > 0 && index >= 0) {
+                    observations.computeIfAbsent(index, i -> new Observation(typeCounts(leave)));
+                    pending.put(player, index);
+                }
+            });
+            while (!game.isGameOver()) {
+                game.play();
+            }
+        }
+        return observations;
+    }
+
+    private int[] typeCounts(LetterRack leave) {
+        int[] counts = new int[table.getTypeCount()];
+        for (int t = 0; t < counts.length; t++) {
+            counts[t] = leave.count(LetterRack.indexOf(table.getTile(t)));
+        }
+        return counts;
+    }
+
+    /**
+     * Fits the tile and pair model to the observations and writes every leave's value.
+     */
+    private void fillTable(Map<Integer, Observation> observations) {
+        double totalScore = 0;
+        int totalCount = 0;
+        for (Observation observation : observations.values()) {
+            totalScore += observation.scoreSum;
+            totalCount += observation.count;
+        }
+        double mean = totalCount == 0 ? 0 : totalScore / totalCount;
+
+        int types = table.getTypeCount();
+        int features = types + types * (types + 1) / 2;
+        double[][] normal = new double[features][features];
+        double[] target = new double[features];
+        int[] active = new int[features];
+        double[] weights = new double[features];
+        for (Observation observation : observations.values()) {
+            if (observation.count == 0) {
+                continue;
+            }
+            double deviation = observation.scoreSum / observation.count - mean;
+            int n = features(observation.counts, active, weights);
+            for (int i = 0; i < n; i++) {
+                target[active[i]] += observation.count * weights[i] * deviation;
+                for (int j = 0; j < n; j++) {
+                    normal[active[i]][active[j]] += observation.count * weights[i] * weights[j];
+                }
+            }
+        }
+        for (int i = 0; i < features; i++) {
+            normal[i][i] += RIDGE;
+        }
+        double[] model = solve(normal, target);
+
+        table.forEachLeave((counts, index) -> {
+            int n = features(counts, active, weights);
+            double value = 0;
+            for (int i = 0; i < n; i++) {
+                value += model[active[i]] * weights[i];
+            }
+            Observation observation = observations.get(index);
+            if (observation != null && observation.count > 0) {
+                double observed = observation.scoreSum / observation.count - mean;
+                value = (observation.count * observed + PRIOR_WEIGHT * value) / (observation.count + PRIOR_WEIGHT);
+            }
+            table.setValue(index, value);
+        });
+    }
+
+    /**
+     * Lists the model features of a leave: the count of each tile type, and for each pair
+     * of types the number of pairs of such tiles in the leave.
+     *
+     * @return the number of features set in {@code active} and {@code weights}
+     */
+    private static int features(int[] counts, int[] active, double[] weights) {
+        int types = counts.length;
+        int n = 0;
+        for (int a = 0; a < types; a++) {
+            if (counts[a] == 0) {
+                continue;
+            }
+            active[n] = a;
+            weights[n++] = counts[a];
+            for (int b = a; b < types; b++) {
+                if (counts[b] == 0 || (a == b && counts[a] < 2)) {
+                    continue;
+                }
+                active[n] = types + pairIndex(a, b, types);
+                weights[n++] = a == b ? counts[a] * (counts[a] - 1) / 2.0 : counts[a] * counts[b];
+            }
+        }
+        return n;
+    }
+
+    private static int pairIndex(int a, int b, int types) {
+        // Pairs (a, b) with a <= b, row by row
+        return a * types - a * (a - 1) / 2 + (b - a);
+    }
+
+    /**
+     * Solves a symmetric positive definite system by Cholesky decomposition.
+     */
+    private static double[] solve(double[][] matrix, double[] target) {
+        int n = target.length;
+        double[][] lower = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = matrix[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[i][k] * lower[j][k];
+                }
+                lower[i][j] = i == j ? Math.sqrt(sum) : sum / lower[j][j];
+            }
+        }
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = target[i];
+            for (int k = 0; k < i; k++) {
+                sum -= lower[i][k] * y[k];
+            }
+            y[i] = sum / lower[i][i];
+        }
+        double[] x = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = y[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= lower[k][i] * x[k];
+            }
+            x[i] = sum / lower[i][i];
+        }
+        return x;
+    }
+
+    public static void main(String[] args) {
+        GameLogger.setQuietByDefault();
+        if (args.length < 4 || args.length > 6) {
+            System.out.println("Usage: java scrabble.LeaveTrainer <dictionary_file> <tile_config_file> <board_file> <leave_file> [<games>] [<threads>]");
+            System.exit(1);
+        }
+        int games = args.length >= 5 ? Integer.parseInt(args[4]) : DEFAULT_GAMES;
+        int threads = args.length == 6 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        try {
+            long start = System.nanoTime();
+            Dictionary dictionary = Dictionary.load(args[0]);
+            ScoreMap scoreMap;
+            try (BufferedReader br = new BufferedReader(new FileReader(args[1]))) {
+                scoreMap = new ScoreMap(br);
+            }
+            LeaveTable table = new LeaveTrainer(dictionary, scoreMap, args[1], args[2]).train(games, threads);
+            table.write(args[3]);
+            System.out.printf("Trained %d leaves from %d games on %d threads into %s in %d ms%n",
+                    table.size(), games, threads, args[3], (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
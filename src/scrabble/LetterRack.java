@@ -0,0 +1,142 @@
+package scrabble;
+
+/**
+ * The tiles available to the move generator, kept as a count per letter.
+ * Index 0 to 25 stand for 'a' to 'z' and {@link #BLANK} for the blank tile '*'.
+ * Taking a tile and putting it back are constant time and allocate nothing, so the
+ * generator can do both on every edge of its search.
+ */
+public class LetterRack {
+    public static final int BLANK = 26;
+    private static final char BLANK_TILE = '*';
+
+    private final int[] counts;
+    private int size;
+    private long hash;
+
+    public LetterRack() {
+        this.counts = new int[BLANK + 1];
+        this.size = 0;
+    }
+
+    /**
+     * Constructs a rack holding the given tiles.
+     *
+     * @param tiles the tiles, lowercase letters and '*' for blanks
+     */
+    public LetterRack(Iterable<Character> tiles) {
+        this();
+        for (char tile : tiles) {
+            add(tile);
+        }
+    }
+
+    /**
+     * Constructs a copy of a rack.
+     *
+     * @param other the rack to copy
+     */
+    public LetterRack(LetterRack other) {
+        this.counts = other.counts.clone();
+        this.size = other.size;
+        this.hash = other.hash;
+    }
+
+    /**
+     * Adds a tile to the rack. Tiles other than lowercase letters and blanks are kept
+     * in the size but can never be played.
+     *
+     * @param tile the tile, a lowercase letter or '*' for a blank
+     */
+    public void add(char tile) {
+        int index = indexOf(tile);
+        if (index >= 0) {
+            counts[index]++;
+            hash += ZobristKeys.tile(index);
+        }
+        size++;
+    }
+
+    /**
+     * Checks if the rack holds a tile.
+     *
+     * @param index the letter index (0 for 'a') or {@link #BLANK}
+     * @return true if at least one such tile is left
+     */
+    public boolean has(int index) {
+        return counts[index] > 0;
+    }
+
+    /**
+     * Takes a tile out of the rack. The caller must have checked that it is there.
+     *
+     * @param index the letter index (0 for 'a') or {@link #BLANK}
+     */
+    public void take(int index) {
+        counts[index]--;
+        size--;
+        hash -= ZobristKeys.tile(index);
+    }
+
+    /**
+     * Puts back a tile taken with {@link #take(int)}.
+     *
+     * @param index the letter index (0 for 'a') or {@link #BLANK}
+     */
+    public void put(int index) {
+        counts[index]++;
+        size++;
+        hash += ZobristKeys.tile(index);
+    }
+
+    public int count(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Returns the hash of the tiles on the rack: the sum of the
+     * {@link ZobristKeys#tile(int) key} of each tile, kept up to date as tiles are added,
+     * taken and put back. Racks holding the same tiles hash the same.
+     *
+     * @return the hash, 0 for an empty rack
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    public int getBlankCount() {
+        return counts[BLANK];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Converts a tile to its index in the rack.
+     *
+     * @param tile the tile
+     * @return the letter index, {@link #BLANK} for '*', or -1 if the tile is neither
+     */
+    public static int indexOf(char tile) {
+        if (tile >= 'a' && tile <= 'z') {
+            return tile - 'a';
+        }
+        return tile == BLANK_TILE ? BLANK : -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int index = 0; index <= BLANK; index++) {
+            for (int k = 0; k < counts[index]; k++) {
+                sb.append(index == BLANK ? BLANK_TILE : (char) ('a' + index));
+            }
+        }
+        return sb.toString();
+    }
+}
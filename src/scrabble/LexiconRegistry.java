@@ -0,0 +1,276 @@
+package scrabble;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Dictionaries loaded once and shared by every game, solver and thread of a process.
+ *
+ * Word lists registered as lexicons (TWL06, SOWPODS, ENABLE, ...) are read together on
+ * first use into one DAWG that marks each word with the lexicons it is in, see
+ * {@link Dawg#fromLexicons(List)}, so the words they have in common are stored once. Each
+ * lexicon is handed out as a {@link Dictionary} viewing its words of the shared graph, and
+ * set queries such as the words of one lexicon that another lacks walk the graph directly.
+ * Any other file is loaded on its own the first time it is asked for. Every dictionary
+ * handed out is shared and cannot be changed.
+ *
+ * The registry of {@link #getShared()} is used by the game, the solver and the score
+ * checker. Its lexicons can be set with the {@code scrabble.lexicons} system property, as
+ * name=file pairs separated by commas, for example
+ * {@code -Dscrabble.lexicons=twl06=twl06.txt,sowpods=sowpods.txt}.
+ *
+ * Run to compare lexicons:
+ * java scrabble.LexiconRegistry name=word_list_file... [lexicon other_lexicon]
+ */
+public class LexiconRegistry {
+    public static final String LEXICONS_PROPERTY = "scrabble.lexicons";
+
+    private static LexiconRegistry sharedRegistry;
+
+    private final Map<String, Path> lexiconFiles = new LinkedHashMap<>();
+    private final Map<Path, Dictionary> dictionaries = new HashMap<>();
+    private Dawg graph;
+    private Dictionary[] lexicons;
+
+    /**
+     * Returns the registry shared by the whole process, registering the lexicons of the
+     * {@code scrabble.lexicons} system property when it is first asked for.
+     *
+     * @return the shared registry
+     * @throws IllegalArgumentException if the property is malformed
+     */
+    public static synchronized LexiconRegistry getShared() {
+        if (sharedRegistry == null) {
+            LexiconRegistry registry = new LexiconRegistry();
+            String property = System.getProperty(LEXICONS_PROPERTY, "").trim();
+            if (!property.isEmpty()) {
+                for (String entry : property.split(",")) {
+                    registry.register(entry.trim());
+                }
+            }
+            sharedRegistry = registry;
+        }
+        return sharedRegistry;
+    }
+
+    /**
+     * Registers a lexicon given as name=file.
+     */
+    private void register(String entry) {
+        int equals = entry.indexOf('=');
+        if (equals <= 0 || equals == entry.length() - 1) {
+            throw new IllegalArgumentException("Lexicon must be given as name=file: " + entry);
+        }
+        register(entry.substring(0, equals), entry.substring(equals + 1));
+    }
+
+    /**
+     * Registers a word list as a lexicon. Lexicons are read together when one of them is
+     * first used, so they must all be registered before then.
+     *
+     * @param name           the name of the lexicon
+     * @param dictionaryFile the word list or dictionary image
+     * @throws IllegalArgumentException if the name is taken or there are too many lexicons
+     * @throws IllegalStateException    if the lexicons have already been read
+     */
+    public synchronized void register(String name, String dictionaryFile) {
+        if (graph != null) {
+            throw new IllegalStateException("Lexicons have already been loaded, cannot register " + name);
+        }
+        if (lexiconFiles.containsKey(name)) {
+            throw new IllegalArgumentException("Lexicon already registered: " + name);
+        }
+        if (lexiconFiles.size() == Dawg.MAX_LEXICONS) {
+            throw new IllegalArgumentException("At most " + Dawg.MAX_LEXICONS + " lexicons can be registered");
+        }
+        lexiconFiles.put(name, normalize(dictionaryFile));
+    }
+
+    private static Path normalize(String file) {
+        return Paths.get(file).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Gets the names of the registered lexicons.
+     *
+     * @return the names, in the order they were registered
+     */
+    public synchronized List<String> getLexiconNames() {
+        return Collections.unmodifiableList(new ArrayList<>(lexiconFiles.keySet()));
+    }
+
+    /**
+     * Returns the dictionary of a lexicon, reading every lexicon on first use.
+     *
+     * @param name the name of the lexicon
+     * @return the shared dictionary
+     * @throws IOException              if a word list cannot be read
+     * @throws IllegalArgumentException if there is no such lexicon
+     */
+    public synchronized Dictionary getLexicon(String name) throws IOException {
+        loadLexicons();
+        return lexicons[indexOf(name)];
+    }
+
+    /**
+     * Returns the dictionary of a file: the lexicon registered for it, or a dictionary
+     * loaded from it the first time it is asked for, as {@link Dictionary#load(String)} does.
+     *
+     * @param dictionaryFile the word list or dictionary image
+     * @return the shared dictionary
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized Dictionary load(String dictionaryFile) throws IOException {
+        Path path = normalize(dictionaryFile);
+        int index = 0;
+        for (Path lexiconFile : lexiconFiles.values()) {
+            if (lexiconFile.equals(path)) {
+                loadLexicons();
+                return lexicons[index];
+            }
+            index++;
+        }
+
+        Dictionary dictionary = dictionaries.get(path);
+        if (dictionary == null) {
+            dictionary = Dictionary.load(dictionaryFile).share();
+            dictionaries.put(path, dictionary);
+        }
+        return dictionary;
+    }
+
+    /**
+     * Returns the graph holding every lexicon, reading them on first use.
+     *
+     * @return the graph, with lexicon i the i-th registered
+     * @throws IOException           if a word list cannot be read
+     * @throws IllegalStateException if no lexicon is registered
+     */
+    public synchronized Dawg getGraph() throws IOException {
+        loadLexicons();
+        return graph;
+    }
+
+    private void loadLexicons() throws IOException {
+        if (graph != null) {
+            return;
+        }
+        if (lexiconFiles.isEmpty()) {
+            throw new IllegalStateException("No lexicons registered");
+        }
+        List<List<String>> wordLists = new ArrayList<>();
+        for (Path file : lexiconFiles.values()) {
+            wordLists.add(Dictionary.readWords(file.toString()));
+        }
+        Dawg merged = Dawg.fromLexicons(wordLists);
+        Dictionary[] views = new Dictionary[wordLists.size()];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = new Dictionary(merged.forLexicon(i), null, true);
+        }
+        lexicons = views;
+        graph = merged;
+    }
+
+    private int indexOf(String name) {
+        int index = 0;
+        for (String lexicon : lexiconFiles.keySet()) {
+            if (lexicon.equals(name)) {
+                return index;
+            }
+            index++;
+        }
+        throw new IllegalArgumentException("No lexicon named " + name);
+    }
+
+    private synchronized int bitsOf(Collection<String> names) {
+        int bits = 0;
+        for (String name : names) {
+            bits |= 1 << indexOf(name);
+        }
+        return bits;
+    }
+
+    /**
+     * Passes the words that are in all of some lexicons and none of others to a consumer,
+     * in alphabetical order, as the shared graph is walked.
+     *
+     * @param in       the lexicons the words must be in
+     * @param notIn    the lexicons the words must not be in
+     * @param consumer the consumer of the words
+     * @throws IOException              if a word list cannot be read
+     * @throws IllegalArgumentException if a lexicon is not registered
+     */
+    public void forEachWordIn(Collection<String> in, Collection<String> notIn, Consumer<String> consumer)
+            throws IOException {
+        Dawg merged = getGraph();
+        merged.forEachWordIn(bitsOf(in), bitsOf(notIn), consumer);
+    }
+
+    /**
+     * Finds the words of one lexicon that another lacks.
+     *
+     * @param in    the lexicon the words are in
+     * @param notIn the lexicon the words are not in
+     * @return the words in alphabetical order
+     * @throws IOException              if a word list cannot be read
+     * @throws IllegalArgumentException if a lexicon is not registered
+     */
+    public List<String> getWordsOnlyIn(String in, String notIn) throws IOException {
+        List<String> words = new ArrayList<>();
+        forEachWordIn(Collections.singletonList(in), Collections.singletonList(notIn), words::add);
+        return words;
+    }
+
+    public static void main(String[] args) {
+        GameLogger.setQuietByDefault();
+        int lexiconArgs = 0;
+        while (lexiconArgs < args.length && args[lexiconArgs].contains("=")) {
+            lexiconArgs++;
+        }
+        if (lexiconArgs == 0 || (args.length != lexiconArgs && args.length != lexiconArgs + 2)) {
+            System.out.println("Usage: java scrabble.LexiconRegistry <name=word_list_file>... [<lexicon> <other_lexicon>]");
+            System.exit(1);
+        }
+
+        try {
+            LexiconRegistry registry = new LexiconRegistry();
+            for (String entry : Arrays.copyOf(args, lexiconArgs)) {
+                registry.register(entry);
+            }
+
+            if (args.length == lexiconArgs + 2) {
+                // The words of the first lexicon the second lacks
+                registry.forEachWordIn(Collections.singletonList(args[lexiconArgs]),
+                        Collections.singletonList(args[lexiconArgs + 1]), System.out::println);
+                return;
+            }
+
+            long start = System.nanoTime();
+            Dawg merged = registry.getGraph();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            long separateBytes = 0;
+            System.out.printf("%-12s %10s %12s%n", "Lexicon", "Words", "Own graph");
+            for (String name : registry.getLexiconNames()) {
+                Dawg own = Dawg.fromWords(registry.getLexicon(name).getDawg().getAllWords());
+                separateBytes += own.getSizeInBytes();
+                System.out.printf("%-12s %10d %10d KB%n", name, own.getWordCount(), own.getSizeInBytes() / 1024);
+            }
+            System.out.printf("Shared graph: %d words, %d nodes, %d KB, loaded in %d ms (separate graphs: %d KB)%n",
+                    merged.getWordCount(), merged.getNodeCount(), merged.getSizeInBytes() / 1024, millis,
+                    separateBytes / 1024);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package scrabble;
+
+import java.util.Comparator;
+import java.util.LinkedList;
+
+/**
+ * A scored move: a word laid on the board from a start square, across or down.
+ * Letters played with a blank are uppercase in the word. The leave is the value of the
+ * tiles the move keeps on the rack, 0 unless the generator has a {@link LeaveTable}.
+ */
+public class Move {
+    /** Ranks moves by score, highest first */
+    public static final Comparator<Move> BY_SCORE = Comparator.comparingInt(Move::getScore).reversed();
+    /** Ranks moves by score plus leave, highest first */
+    public static final Comparator<Move> BY_EQUITY = Comparator.comparingDouble(Move::getEquity).reversed();
+
+    private final String word;
+    private final int row;
+    private final int col;
+    private final boolean vertical;
+    private final int score;
+    private final double leave;
+
+    public Move(String word, int row, int col, boolean vertical, int score) {
+        this(word, row, col, vertical, score, 0);
+    }
+
+    public Move(String word, int row, int col, boolean vertical, int score, double leave) {
+        this.word = word;
+        this.row = row;
+        this.col = col;
+        this.vertical = vertical;
+        this.score = score;
+        this.leave = leave;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public boolean isVertical() {
+        return vertical;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public double getLeave() {
+        return leave;
+    }
+
+    /**
+     * Returns the value of the move to the player: its score plus the value of the leave.
+     *
+     * @return the equity of the move
+     */
+    public double getEquity() {
+        return score + leave;
+    }
+
+    /**
+     * Lists the board coordinates of every letter of the word, first letter first.
+     *
+     * @return the coordinates as {row, col} pairs
+     */
+    public LinkedList<int[]> getCoordinates() {
+        LinkedList<int[]> coordinates = new LinkedList<>();
+        for (int i = 0; i < word.length(); i++) {
+            coordinates.add(vertical ? new int[]{row + i, col} : new int[]{row, col + i});
+        }
+        return coordinates;
+    }
+
+    @Override
+    public String toString() {
+        return word + " at (" + row + ", " + col + ") " + (vertical ? "down" : "across") + " for " + score;
+    }
+}
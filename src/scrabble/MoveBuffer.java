@@ -0,0 +1,253 @@
+package scrabble;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable store of the candidate moves found by a move generator.
+ * Every candidate is kept as primitives in parallel arrays: start square, direction,
+ * score, leave value, and its letters in one shared byte array. Recording a move allocates nothing
+ * once the arrays have grown to the size of a typical search, and the buffer is reused
+ * from one search to the next. {@link Move} objects are only built for the moves a
+ * caller asks for.
+ *
+ * Moves rank by equity, score plus leave value, highest first; equal equities rank in
+ * the order they were recorded. Without leave values this is the order of the scores.
+ */
+public class MoveBuffer {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int size;
+    private int[] rows;
+    private int[] cols;
+    private boolean[] vertical;
+    private int[] scores;
+    /** Leave values in hundredths of a point, see {@link LeaveTable#SCALE} */
+    private int[] leaves;
+    private int[] wordStarts;
+    private int[] wordLengths;
+    private byte[] letters;
+    private int letterCount;
+
+    public MoveBuffer() {
+        this.rows = new int[INITIAL_CAPACITY];
+        this.cols = new int[INITIAL_CAPACITY];
+        this.vertical = new boolean[INITIAL_CAPACITY];
+        this.scores = new int[INITIAL_CAPACITY];
+        this.leaves = new int[INITIAL_CAPACITY];
+        this.wordStarts = new int[INITIAL_CAPACITY];
+        this.wordLengths = new int[INITIAL_CAPACITY];
+        this.letters = new byte[INITIAL_CAPACITY * 8];
+    }
+
+    /**
+     * Forgets all moves but keeps the storage.
+     */
+    public void clear() {
+        size = 0;
+        letterCount = 0;
+    }
+
+    /**
+     * Records a move.
+     *
+     * @param word       the letters of the word, uppercase for blanks
+     * @param offset     the index of the first letter in {@code word}
+     * @param length     the number of letters
+     * @param row        the row of the first letter
+     * @param col        the column of the first letter
+     * @param isVertical true if the word is laid top to bottom
+     * @param score      the score of the move
+     */
+    public void add(char[] word, int offset, int length, int row, int col, boolean isVertical, int score) {
+        add(word, offset, length, row, col, isVertical, score, 0);
+    }
+
+    /**
+     * Records a move with the value of the tiles it leaves on the rack.
+     *
+     * @param word        the letters of the word, uppercase for blanks
+     * @param offset      the index of the first letter in {@code word}
+     * @param length      the number of letters
+     * @param row         the row of the first letter
+     * @param col         the column of the first letter
+     * @param isVertical  true if the word is laid top to bottom
+     * @param score       the score of the move
+     * @param scaledLeave the leave value in hundredths of a point
+     */
+    public void add(char[] word, int offset, int length, int row, int col, boolean isVertical, int score, int scaledLeave) {
+        ensureCapacity(size + 1, letterCount + length);
+        for (int i = 0; i < length; i++) {
+            letters[letterCount + i] = (byte) word[offset + i];
+        }
+        rows[size] = row;
+        cols[size] = col;
+        vertical[size] = isVertical;
+        scores[size] = score;
+        leaves[size] = scaledLeave;
+        wordStarts[size] = letterCount;
+        wordLengths[size] = length;
+        letterCount += length;
+        size++;
+    }
+
+    /**
+     * Appends the moves of another buffer, after the moves of this one.
+     *
+     * @param other the buffer to copy the moves from
+     */
+    public void addAll(MoveBuffer other) {
+        ensureCapacity(size + other.size, letterCount + other.letterCount);
+        System.arraycopy(other.rows, 0, rows, size, other.size);
+        System.arraycopy(other.cols, 0, cols, size, other.size);
+        System.arraycopy(other.vertical, 0, vertical, size, other.size);
+        System.arraycopy(other.scores, 0, scores, size, other.size);
+        System.arraycopy(other.leaves, 0, leaves, size, other.size);
+        System.arraycopy(other.wordLengths, 0, wordLengths, size, other.size);
+        for (int i = 0; i < other.size; i++) {
+            wordStarts[size + i] = other.wordStarts[i] + letterCount;
+        }
+        System.arraycopy(other.letters, 0, letters, letterCount, other.letterCount);
+        size += other.size;
+        letterCount += other.letterCount;
+    }
+
+    private void ensureCapacity(int moveCount, int letterTotal) {
+        if (moveCount > rows.length) {
+            int capacity = Math.max(rows.length * 2, moveCount);
+            rows = Arrays.copyOf(rows, capacity);
+            cols = Arrays.copyOf(cols, capacity);
+            vertical = Arrays.copyOf(vertical, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            leaves = Arrays.copyOf(leaves, capacity);
+            wordStarts = Arrays.copyOf(wordStarts, capacity);
+            wordLengths = Arrays.copyOf(wordLengths, capacity);
+        }
+        if (letterTotal > letters.length) {
+            letters = Arrays.copyOf(letters, Math.max(letters.length * 2, letterTotal));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getScore(int index) {
+        return scores[index];
+    }
+
+    public String getWord(int index) {
+        char[] word = new char[wordLengths[index]];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) letters[wordStarts[index] + i];
+        }
+        return new String(word);
+    }
+
+    /**
+     * Builds the move at an index.
+     *
+     * @param index the index of the move, in recording order
+     * @return the move
+     */
+    public Move getMove(int index) {
+        return new Move(getWord(index), rows[index], cols[index], vertical[index], scores[index],
+                leaves[index] / (double) LeaveTable.SCALE);
+    }
+
+    private int getEquity(int index) {
+        return scores[index] * LeaveTable.SCALE + leaves[index];
+    }
+
+    /**
+     * Finds the best move: the highest equity, recorded first among equals.
+     *
+     * @return the index of the best move, or -1 if there are none
+     */
+    public int getBestIndex() {
+        int best = -1;
+        for (int i = 0; i < size; i++) {
+            if (best < 0 || getEquity(i) > getEquity(best)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Builds the best moves, best first.
+     *
+     * @param count the number of moves wanted
+     * @return up to {@code count} moves, in rank order
+     */
+    public List<Move> getTopMoves(int count) {
+        // Keep the best moves seen so far in a min-heap of indexes, worst at the root
+        int[] heap = new int[Math.max(0, Math.min(count, size))];
+        int heapSize = 0;
+        for (int i = 0; i < size && heap.length > 0; i++) {
+            if (heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++);
+            } else if (ranksBefore(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        Move[] moves = new Move[heapSize];
+        while (heapSize > 0) {
+            moves[--heapSize] = getMove(heap[0]);
+            heap[0] = heap[heapSize];
+            siftDown(heap, heapSize);
+        }
+        return new ArrayList<>(Arrays.asList(moves));
+    }
+
+    private boolean ranksBefore(int a, int b) {
+        int equityA = getEquity(a);
+        int equityB = getEquity(b);
+        return equityA != equityB ? equityA > equityB : a < b;
+    }
+
+    private void siftUp(int[] heap, int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!ranksBefore(heap[parent], heap[position])) {
+                return;
+            }
+            swap(heap, parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        int position = 0;
+        while (true) {
+            int worst = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < heapSize && ranksBefore(heap[worst], heap[left])) {
+                worst = left;
+            }
+            if (right < heapSize && ranksBefore(heap[worst], heap[right])) {
+                worst = right;
+            }
+            if (worst == position) {
+                return;
+            }
+            swap(heap, position, worst);
+            position = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int temp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temp;
+    }
+}
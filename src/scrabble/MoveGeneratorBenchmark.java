@@ -0,0 +1,126 @@
+package scrabble;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+/**
+ * Runs the anchor and GADDAG move generators on every puzzle of a solver input file,
+ * checks that both find exactly the same moves, and compares their generation time.
+ *
+ * Usage: java scrabble.MoveGeneratorBenchmark dictionary_file tile_config_file input_file [iterations]
+ */
+public class MoveGeneratorBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        GameLogger.setQuietByDefault();
+        if (args.length != 3 && args.length != 4) {
+            System.out.println("Usage: java scrabble.MoveGeneratorBenchmark <dictionary_file> <tile_config_file> <input_file> [<iterations>]");
+            System.exit(1);
+        }
+        int iterations = args.length == 4 ? Integer.parseInt(args[3]) : 20;
+
+        Dictionary dictionary = Dictionary.load(args[0]);
+        ScoreMap scoreMap;
+        try (BufferedReader br = new BufferedReader(new FileReader(args[1]))) {
+            scoreMap = new ScoreMap(br);
+        }
+
+        long start = System.nanoTime();
+        dictionary.getGaddag();
+        System.out.printf("GADDAG built in %d ms (%d nodes)%n",
+                (System.nanoTime() - start) / 1_000_000, dictionary.getGaddag().getGraph().getNodeCount());
+
+        long anchorTotal = 0;
+        long gaddagTotal = 0;
+        int puzzle = 0;
+        try (BufferedReader input = new BufferedReader(new FileReader(args[2]))) {
+            String line;
+            while ((line = input.readLine()) != null) {
+                int dimension = Integer.parseInt(line.trim());
+                StringBuilder boardConfig = new StringBuilder();
+                for (int i = 0; i < dimension; i++) {
+                    boardConfig.append(input.readLine()).append(" ");
+                }
+                String tray = input.readLine().trim();
+
+                GameBoard gameBoard = new GameBoard(dimension, scoreMap);
+                gameBoard.configBoard(boardConfig.toString().trim(), scoreMap);
+                gameBoard.setDictionary(dictionary);
+
+                Set<String> anchorMoves = new HashSet<>();
+                Set<String> gaddagMoves = new HashSet<>();
+                ScrabbleMoveGenerator anchor = new ScrabbleMoveGenerator(gameBoard, dictionary) {
+                    @Override
+                    protected void recordMove(char[] letters, int offset, int length, int row, int col, boolean vertical) {
+                        anchorMoves.add(describe(letters, offset, length, row, col, vertical));
+                        super.recordMove(letters, offset, length, row, col, vertical);
+                    }
+                };
+                ScrabbleMoveGenerator gaddag = new GaddagMoveGenerator(gameBoard, dictionary) {
+                    @Override
+                    protected void recordMove(char[] letters, int offset, int length, int row, int col, boolean vertical) {
+                        gaddagMoves.add(describe(letters, offset, length, row, col, vertical));
+                        super.recordMove(letters, offset, length, row, col, vertical);
+                    }
+                };
+
+                long anchorTime = time(anchor, tray, iterations);
+                long gaddagTime = time(gaddag, tray, iterations);
+                anchorTotal += anchorTime;
+                gaddagTotal += gaddagTime;
+                puzzle++;
+
+                System.out.printf("puzzle %d (%s): %d moves, anchor %.2f ms, gaddag %.2f ms, %s%n",
+                        puzzle, tray, anchorMoves.size(), anchorTime / 1e6 / iterations, gaddagTime / 1e6 / iterations,
+                        anchorMoves.equals(gaddagMoves) ? "identical" : "MISMATCH");
+                if (!anchorMoves.equals(gaddagMoves)) {
+                    report(anchorMoves, gaddagMoves);
+                }
+            }
+        }
+
+        System.out.printf("total: anchor %.2f ms, gaddag %.2f ms, speedup %.2fx%n",
+                anchorTotal / 1e6 / iterations, gaddagTotal / 1e6 / iterations, (double) anchorTotal / gaddagTotal);
+    }
+
+    private static long time(ScrabbleMoveGenerator generator, String tray, int iterations) {
+        LinkedList<Character> tiles = new LinkedList<>();
+        for (char c : tray.toCharArray()) {
+            tiles.add(c);
+        }
+        generator.setAvailableTiles(tiles);
+
+        // Warm up once, then time the remaining runs
+        generator.generateAllPossibleMoves();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            generator.generateAllPossibleMoves();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String describe(char[] letters, int offset, int length, int row, int col, boolean vertical) {
+        StringBuilder sb = new StringBuilder().append(letters, offset, length);
+        for (int i = 0; i < length; i++) {
+            sb.append(' ').append(vertical ? row + i : row).append(',').append(vertical ? col : col + i);
+        }
+        return sb.toString();
+    }
+
+    private static void report(Set<String> anchorMoves, Set<String> gaddagMoves) {
+        for (String move : anchorMoves) {
+            if (!gaddagMoves.contains(move)) {
+                System.out.println("  only anchor: " + move);
+            }
+        }
+        for (String move : gaddagMoves) {
+            if (!anchorMoves.contains(move)) {
+                System.out.println("  only gaddag: " + move);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package scrabble;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses a move by simulation. The best candidates of the move generator are each played
+ * out many times against random draws of the tiles the player cannot see: the opponent
+ * gets a random rack and plays its best reply, the player draws to refill and plays its
+ * best next move. A candidate is worth its score, minus the reply, plus the next move,
+ * averaged over its playouts, and the candidate worth most is chosen.
+ *
+ * Playouts run on a pool of threads until the time budget is spent, taking the candidates
+ * in turn so each gets about as many playouts. Every thread copies the board once per
+ * decision and plays the moves of a playout on its copy with {@link GameBoard#makeMove},
+ * taking them back with {@link GameBoard#unmakeMove} afterwards, so no board is allocated
+ * and no cross-check is computed again per playout.
+ */
+public class MoveSimulator {
+    private static final int DEFAULT_CANDIDATES = 10;
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 2000;
+    private static final int RACK_SIZE = 7;
+
+    private final Dictionary dictionary;
+    private int candidates;
+    private long timeBudgetMillis;
+    private int maxPlayouts;
+    private int threads;
+    private LeaveTable leaveTable;
+    private int lastPlayouts;
+
+    public MoveSimulator(Dictionary dictionary) {
+        this.dictionary = dictionary;
+        this.candidates = DEFAULT_CANDIDATES;
+        this.timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+        this.maxPlayouts = Integer.MAX_VALUE;
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets how many of the generator's best moves are simulated.
+     *
+     * @param candidates the number of candidate moves
+     * @throws IllegalArgumentException if the number is less than one
+     */
+    public void setCandidates(int candidates) {
+        if (candidates < 1) {
+            throw new IllegalArgumentException("Candidates must be at least 1: " + candidates);
+        }
+        this.candidates = candidates;
+    }
+
+    /**
+     * Sets how long the playouts of one decision may run.
+     *
+     * @param timeBudgetMillis the time budget in milliseconds
+     */
+    public void setTimeBudget(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Limits the playouts of each candidate, so a decision may end before its time budget.
+     *
+     * @param maxPlayouts the most playouts per candidate
+     * @throws IllegalArgumentException if the number is less than one
+     */
+    public void setMaxPlayouts(int maxPlayouts) {
+        if (maxPlayouts < 1) {
+            throw new IllegalArgumentException("Playouts must be at least 1: " + maxPlayouts);
+        }
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * Sets the number of threads playouts run on, all processors by default.
+     *
+     * @param threads the number of threads
+     * @throws IllegalArgumentException if the number is less than one
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the leave values used to pick the candidates and the moves within playouts.
+     *
+     * @param leaveTable the leave values, or null to rank by score
+     */
+    public void setLeaveTable(LeaveTable leaveTable) {
+        this.leaveTable = leaveTable;
+    }
+
+    /**
+     * Returns the number of playouts of the last decision, over all candidates.
+     *
+     * @return the number of playouts
+     */
+    public int getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Chooses a move for a rack. The board is only read.
+     *
+     * @param board  the board
+     * @param rack   the player's tiles
+     * @param unseen the tiles the player cannot see: those in the bag and on the
+     *               opponent's rack
+     * @return the chosen move, or null if there is no legal move
+     */
+    public Move chooseMove(GameBoard board, LetterRack rack, LetterRack unseen) {
+        ScrabbleMoveGenerator generator = new ScrabbleMoveGenerator(board, dictionary);
+        generator.setAvailableTiles(new LetterRack(rack));
+        generator.setLeaveTable(leaveTable);
+        generator.generateAllPossibleMoves();
+        List<Move> moves = generator.getTopMoves(candidates);
+        lastPlayouts = 0;
+        if (moves.size() <= 1 || unseen.isEmpty()) {
+            return moves.isEmpty() ? null : moves.get(0);
+        }
+
+        char[] pool = unseen.toString().toCharArray();
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+        long playoutLimit = (long) maxPlayouts * moves.size();
+        AtomicInteger next = new AtomicInteger();
+        double[] sums = new double[moves.size()];
+        int[] counts = new int[moves.size()];
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Playout>> results = new ArrayList<>();
+            for (int k = 0; k < threads; k++) {
+                // Copy the board here, while no other thread is using it
+                Playout playout = new Playout(new GameBoard(board), rack, pool, moves.size());
+                results.add(workers.submit(() -> {
+                    Random random = ThreadLocalRandom.current();
+                    for (int n = next.getAndIncrement(); n < playoutLimit && System.nanoTime() < deadline;
+                         n = next.getAndIncrement()) {
+                        int candidate = n % moves.size();
+                        playout.record(candidate, playout.run(moves.get(candidate), random));
+                    }
+                    return playout;
+                }));
+            }
+            for (Future<Playout> result : results) {
+                Playout playout = result.get();
+                for (int c = 0; c < moves.size(); c++) {
+                    sums[c] += playout.sums[c];
+                    counts[c] += playout.counts[c];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return moves.get(0);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Playout failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        int best = 0;
+        for (int c = 0; c < moves.size(); c++) {
+            lastPlayouts += counts[c];
+            if (counts[c] > 0 && (counts[best] == 0 || sums[c] / counts[c] > sums[best] / counts[best])) {
+                best = c;
+            }
+        }
+        return moves.get(best);
+    }
+
+    /**
+     * The board copy, move generator and totals of one thread's playouts.
+     */
+    private class Playout {
+        private final GameBoard board;
+        private final ScrabbleMoveGenerator generator;
+        private final LetterRack rack;
+        private final char[] pool;
+        private final double[] sums;
+        private final int[] counts;
+
+        Playout(GameBoard board, LetterRack rack, char[] pool, int candidates) {
+            this.board = board;
+            this.generator = new ScrabbleMoveGenerator(board, dictionary);
+            generator.setLeaveTable(leaveTable);
+            this.rack = rack;
+            this.pool = pool.clone();
+            this.sums = new double[candidates];
+            this.counts = new int[candidates];
+        }
+
+        void record(int candidate, double value) {
+            sums[candidate] += value;
+            counts[candidate]++;
+        }
+
+        /**
+         * Plays a candidate, a random reply and our next move, then takes them back.
+         *
+         * @return the candidate's score, minus the reply's, plus the next move's
+         */
+        double run(Move move, Random random) {
+            LetterRack ours = new LetterRack(rack);
+            String word = move.getWord();
+            for (int k = 0; k < word.length(); k++) {
+                int row = move.isVertical() ? move.getRow() + k : move.getRow();
+                int col = move.isVertical() ? move.getCol() : move.getCol() + k;
+                if (!board.hasExistingLetter(row, col)) {
+                    char letter = word.charAt(k);
+                    ours.take(Character.isUpperCase(letter) ? LetterRack.BLANK : letter - 'a');
+                }
+            }
+            int used = board.makeMove(move);
+
+            // The opponent holds a full rack of unseen tiles, the rest are in the bag
+            int opponentTiles = Math.min(RACK_SIZE, pool.length);
+            int drawn = Math.min(used, pool.length - opponentTiles);
+            shuffle(opponentTiles + drawn, random);
+            LetterRack theirs = new LetterRack();
+            for (int k = 0; k < opponentTiles; k++) {
+                theirs.add(pool[k]);
+            }
+            for (int k = opponentTiles; k < opponentTiles + drawn; k++) {
+                ours.add(pool[k]);
+            }
+
+            generator.setAvailableTiles(theirs);
+            generator.determineBestMove();
+            int reply = generator.getScore();
+            boolean replied = !generator.getBestWord().isEmpty();
+            if (replied) {
+                List<int[]> coordinates = generator.getBestMoveCoordinates();
+                int[] first = coordinates.get(0);
+                boolean vertical = coordinates.size() > 1 && coordinates.get(1)[0] != first[0];
+                board.makeMove(generator.getBestWord(), first[0], first[1], vertical);
+            }
+            generator.setAvailableTiles(ours);
+            generator.determineBestMove();
+            int nextMove = generator.getScore();
+
+            if (replied) {
+                board.unmakeMove();
+            }
+            board.unmakeMove();
+            return move.getScore() - reply + nextMove;
+        }
+
+        /**
+         * Moves a random choice of the pool's tiles to its front.
+         */
+        private void shuffle(int count, Random random) {
+            for (int k = 0; k < count; k++) {
+                int other = k + random.nextInt(pool.length - k);
+                char tile = pool[k];
+                pool[k] = pool[other];
+                pool[other] = tile;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package scrabble;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Runs both move generators on every puzzle of a solver input file with one thread and
+ * with each of the given thread counts, checks that every run finds the same moves in the
+ * same order, and reports the speedup over one thread.
+ *
+ * Usage: java scrabble.ParallelMoveBenchmark dictionary_file tile_config_file input_file [threads] [iterations]
+ * where threads is a comma separated list of thread counts, 2,4,8,16 by default.
+ */
+public class ParallelMoveBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        GameLogger.setQuietByDefault();
+        if (args.length < 3 || args.length > 5) {
+            System.out.println("Usage: java scrabble.ParallelMoveBenchmark <dictionary_file> <tile_config_file> <input_file> [<threads>] [<iterations>]");
+            System.exit(1);
+        }
+        String[] threadCounts = (args.length >= 4 ? args[3] : "2,4,8,16").split(",");
+        int iterations = args.length == 5 ? Integer.parseInt(args[4]) : 10;
+
+        Dictionary dictionary = Dictionary.load(args[0]);
+        ScoreMap scoreMap;
+        try (BufferedReader br = new BufferedReader(new FileReader(args[1]))) {
+            scoreMap = new ScoreMap(br);
+        }
+        dictionary.getGaddag();
+        System.out.printf("%d processors available%n", Runtime.getRuntime().availableProcessors());
+
+        int puzzle = 0;
+        try (BufferedReader input = new BufferedReader(new FileReader(args[2]))) {
+            String line;
+            while ((line = input.readLine()) != null) {
+                int dimension = Integer.parseInt(line.trim());
+                StringBuilder boardConfig = new StringBuilder();
+                for (int i = 0; i < dimension; i++) {
+                    boardConfig.append(input.readLine()).append(" ");
+                }
+                String tray = input.readLine().trim();
+
+                GameBoard gameBoard = new GameBoard(dimension, scoreMap);
+                gameBoard.configBoard(boardConfig.toString().trim(), scoreMap);
+                gameBoard.setDictionary(dictionary);
+                puzzle++;
+
+                for (ScrabbleMoveGenerator generator : new ScrabbleMoveGenerator[]{
+                        new ScrabbleMoveGenerator(gameBoard, dictionary), new GaddagMoveGenerator(gameBoard, dictionary)}) {
+                    String engine = generator instanceof GaddagMoveGenerator ? "gaddag" : "anchor";
+                    LinkedList<Character> tiles = new LinkedList<>();
+                    for (char c : tray.toCharArray()) {
+                        tiles.add(c);
+                    }
+                    generator.setAvailableTiles(tiles);
+
+                    generator.setThreads(1);
+                    List<String> serialMoves = describeMoves(generator);
+                    long serialTime = time(generator, iterations);
+                    long[] parallelTimes = new long[threadCounts.length];
+                    boolean[] identical = new boolean[threadCounts.length];
+                    for (int k = 0; k < threadCounts.length; k++) {
+                        generator.setThreads(Integer.parseInt(threadCounts[k].trim()));
+                        identical[k] = describeMoves(generator).equals(serialMoves);
+                        parallelTimes[k] = time(generator, iterations);
+                    }
+                    // Time one thread again once the code is fully compiled, and keep the faster run
+                    generator.setThreads(1);
+                    serialTime = Math.min(serialTime, time(generator, iterations));
+
+                    StringBuilder report = new StringBuilder();
+                    for (int k = 0; k < threadCounts.length; k++) {
+                        report.append(String.format(", %s threads %.2fx%s", threadCounts[k].trim(),
+                                (double) serialTime / parallelTimes[k], identical[k] ? "" : " MISMATCH"));
+                    }
+
+                    System.out.printf("puzzle %d (%s) %s: %d moves, 1 thread %.2f ms%s%n", puzzle, tray, engine,
+                            serialMoves.size(), serialTime / 1e6 / iterations, report);
+                }
+            }
+        }
+    }
+
+    private static List<String> describeMoves(ScrabbleMoveGenerator generator) {
+        generator.generateAllPossibleMoves();
+        List<String> moves = new ArrayList<>();
+        for (Move move : generator.getTopMoves(Integer.MAX_VALUE)) {
+            moves.add(move.toString());
+        }
+        return moves;
+    }
+
+    private static long time(ScrabbleMoveGenerator generator, int iterations) {
+        // Warm up with as many runs as are timed
+        for (int i = 0; i < iterations; i++) {
+            generator.generateAllPossibleMoves();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            generator.generateAllPossibleMoves();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -2,48 +2,132 @@ package scrabble;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * ScoreChecker class for validating and scoring Scrabble plays.
  * This class reads game boards, compares them, and calculates scores for valid plays.
  */
 public class ScoreChecker {
-    private static ScoreChecker scoreChecker;
+    // Checked plays each worker may be ahead of the output, before reading waits
+    private static final int PLAYS_AHEAD_PER_THREAD = 16;
+
     private static ScoreMap scoreMap;
     private static Dictionary dict;
     private GameBoard originalGameBoard, resultGameBoard;
+    private PrintWriter out;
     LinkedList<int[]> coordinatesToScore = new LinkedList<>();
     List<Integer> individualScore = new LinkedList<>();
 
     /**
      * Constructs a ScoreChecker object by reading and processing input from a BufferedReader.
+     * The results are printed to standard output.
      *
      * @param br BufferedReader containing the input data
      * @throws IOException if there's an error reading from the BufferedReader
      */
     public ScoreChecker(BufferedReader br) throws IOException {
-        String line;
-        while ((line = br.readLine()) != null) {
-            line = line.trim();
-
-            if (line.isEmpty()) {
-                if (originalGameBoard != null && resultGameBoard != null) {
-                    getScore(originalGameBoard, resultGameBoard);
-                    originalGameBoard = null;
-                    resultGameBoard = null;
-                    coordinatesToScore.clear();
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+        try {
+            checkPlays(br, out, 1);
+        } finally {
+            out.flush();
+        }
+    }
+
+    private ScoreChecker(PrintWriter out) {
+        this.out = out;
+    }
+
+    /**
+     * Checks every pair of boards in the input and writes the results in input order.
+     * Board pairs are read on the calling thread; with more than one thread they are
+     * checked on a pool of workers, and each result is held until the results before it
+     * are written.
+     *
+     * @param br      the board pairs, each pair followed by a blank line
+     * @param out     the writer for the results
+     * @param threads the number of worker threads, 1 to check on the calling thread
+     * @throws IOException if there's an error reading the input or checking a pair
+     */
+    public static void checkPlays(BufferedReader br, PrintWriter out, int threads) throws IOException {
+        ExecutorService workers = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            Queue<Future<String>> pending = new ArrayDeque<>();
+            GameBoard original = null;
+            GameBoard result = null;
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+
+                if (line.isEmpty()) {
+                    if (original != null && result != null) {
+                        GameBoard pairOriginal = original;
+                        GameBoard pairResult = result;
+                        if (workers == null) {
+                            out.print(checkPair(pairOriginal, pairResult));
+                        } else {
+                            pending.add(workers.submit(() -> checkPair(pairOriginal, pairResult)));
+                            if (pending.size() >= threads * PLAYS_AHEAD_PER_THREAD) {
+                                writeResult(pending.remove(), out);
+                            }
+                        }
+                        original = null;
+                        result = null;
+                    }
+                    continue;
                 }
-                continue;
-            }
 
-            if (line.length() < 3) {
-                GameBoard newGameBoard = createBoard(br, Integer.parseInt(line));
-                if (originalGameBoard == null) {
-                    originalGameBoard = newGameBoard;
-                } else {
-                    resultGameBoard = newGameBoard;
+                if (line.length() < 3) {
+                    GameBoard newGameBoard = createBoard(br, Integer.parseInt(line));
+                    if (original == null) {
+                        original = newGameBoard;
+                    } else {
+                        result = newGameBoard;
+                    }
                 }
             }
+            while (!pending.isEmpty()) {
+                writeResult(pending.remove(), out);
+            }
+        } finally {
+            if (workers != null) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Checks one play on a checker of its own.
+     *
+     * @param originalGameBoard The original game board before the play
+     * @param resultGameBoard The game board after the play
+     * @return the text of the result
+     */
+    private static String checkPair(GameBoard originalGameBoard, GameBoard resultGameBoard) {
+        StringWriter text = new StringWriter();
+        ScoreChecker checker = new ScoreChecker(new PrintWriter(text));
+        checker.originalGameBoard = originalGameBoard;
+        checker.resultGameBoard = resultGameBoard;
+        checker.getScore(originalGameBoard, resultGameBoard);
+        checker.out.flush();
+        return text.toString();
+    }
+
+    private static void writeResult(Future<String> result, PrintWriter out) throws IOException {
+        try {
+            out.print(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while checking plays", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to check play", e.getCause());
         }
     }
 
@@ -55,7 +139,7 @@ public class ScoreChecker {
      * @return A new GameBoard object
      * @throws IOException if there's an error reading from the BufferedReader
      */
-    private GameBoard createBoard(BufferedReader br, int dimn) throws IOException {
+    private static GameBoard createBoard(BufferedReader br, int dimn) throws IOException {
         GameBoard gameBoard = new GameBoard(dimn);
         StringBuilder sb = new StringBuilder();
 
@@ -79,8 +163,8 @@ public class ScoreChecker {
      */
     public void getScore(GameBoard originalGameBoard, GameBoard resultGameBoard) {
         // Print original and result boards
-        System.out.printf("original board:\n%s", originalGameBoard.toString());
-        System.out.printf("result board:\n%s", resultGameBoard.toString());
+        out.printf("original board:\n%s", originalGameBoard.toString());
+        out.printf("result board:\n%s", resultGameBoard.toString());
 
         int dim = originalGameBoard.dimn;
         LinkedList<int[]> diffs = new LinkedList<>();
@@ -96,7 +180,7 @@ public class ScoreChecker {
 
         // Check if play is empty
         if (diffs.isEmpty()) {
-            System.out.printf("play is empty\nplay is not legal\n\n");
+            out.printf("play is empty\nplay is not legal\n\n");
             return;
         }
 
@@ -116,11 +200,11 @@ public class ScoreChecker {
         String play = substring.toString();
         String str = sb.toString().trim();
         str = str.substring(0, str.length() - 1);
-        System.out.println(str);
+        out.println(str);
 
         // Check if play is valid
         if (!validPlay(originalGameBoard.getAnchorPositions(), diffs)) {
-            System.out.printf("play is not legal\n\n");
+            out.printf("play is not legal\n\n");
             return;
         }
 
@@ -147,12 +231,12 @@ public class ScoreChecker {
         LinkedList<String> adjacentWords = getAdjacentWords(resultGameBoard, diffs, playDirection);
 
         if (!isPlayLegal(play, adjacentWords)) {
-            System.out.println("play is not legal\n");
+            out.println("play is not legal\n");
             return;
         }
 
         int score = calculateScore(originalGameBoard, resultGameBoard, coordinatesToScore, play.length(), adjacentWords);
-        System.out.printf("play is legal\nscore is %d\n\n", score);
+        out.printf("play is legal\nscore is %d\n\n", score);
     }
 
     /**
@@ -504,14 +588,14 @@ public class ScoreChecker {
                 } else {
                     // Check if a tile was removed
                     if (!originalGameBoard.getTile(r,c).isEmpty() && resultGameBoard.getTile(r,c).isEmpty()) {
-                        System.out.printf("Incompatible boards: tile removed at (%d, %d)\n", r, c);
+                        out.printf("Incompatible boards: tile removed at (%d, %d)\n", r, c);
                         return false;
                     }
                     // Check for mismatched multipliers
                     if ((originalGameBoard.getTile(r,c).isEmpty() && resultGameBoard.getTile(r,c).isEmpty()) &&
                             (originalGameBoard.getTile(r,c).hasMulti() && !resultGameBoard.getTile(r,c).hasMulti()) ||
                             (!originalGameBoard.getTile(r,c).hasMulti() && resultGameBoard.getTile(r,c).hasMulti())) {
-                        System.out.printf("Incompatible boards: multiplier mismatch at (%d, %d)\n\n", r, c);
+                        out.printf("Incompatible boards: multiplier mismatch at (%d, %d)\n\n", r, c);
                         return false;
                     }
                 }
@@ -526,8 +610,14 @@ public class ScoreChecker {
      * @param args Command line arguments. Expects the dictionary file path as the first argument.
      */
     public static void main(String[] args) {
+        GameLogger.setQuietByDefault();
+        int threads = 1;
+        if (args.length > 1 && args[0].equals("-t")) {
+            threads = Integer.parseInt(args[1]);
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
         if (args.length < 1) {
-            System.out.println("Usage: java Scrabble.Checker <dictionary_file>");
+            System.out.println("Usage: java Scrabble.Checker [-t <threads>] <dictionary_file>");
             return;
         }
 
@@ -537,7 +627,7 @@ public class ScoreChecker {
         try {
             loadScoreMap(tileScoreFile);
             loadDictionary(dictionaryFile);
-            processInput();
+            processInput(threads);
         } catch (IOException e) {
             System.out.println("Error: " + e.getMessage());
             e.printStackTrace();
@@ -565,8 +655,8 @@ public class ScoreChecker {
      * @throws IOException If there's an error reading the file
      */
     private static void loadDictionary(String filename) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            dict = new Dictionary(br);
+        try {
+            dict = LexiconRegistry.getShared().load(filename);
             if (dict.getTotalWordCount() == 0) {
                 System.err.println("Warning: Dictionary loaded from " + filename + " is empty.");
             } else {
@@ -578,13 +668,19 @@ public class ScoreChecker {
     }
 
     /**
-     * Processes input from standard input to create and run the ScoreChecker.
+     * Checks the plays read from standard input and writes the results to standard output.
      *
+     * @param threads the number of worker threads
      * @throws IOException If there's an error reading from standard input
      */
-    private static void processInput() throws IOException {
+    private static void processInput(int threads) throws IOException {
         try (BufferedReader br = new BufferedReader(new InputStreamReader(System.in))) {
-            scoreChecker = new ScoreChecker(br);
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+            try {
+                checkPlays(br, out, threads);
+            } finally {
+                out.flush();
+            }
         } catch (IOException e) {
             throw new IOException("Error processing input", e);
         }
@@ -1,202 +1,454 @@
 package scrabble;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 public class ScrabbleMoveGenerator {
+    /** Pools shared by every generator, one per thread count */
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
     private int score;
-    private GameBoard gameBoard;
-    private List<Character> availableTiles;
-    private Dictionary dictionary;
-    private LinkedList<int[]> anchorPoints;
-    private LinkedList<String> leftPartialWords;
-    private TreeMap<Integer, LinkedHashMap<String, LinkedHashMap<int[], Boolean>>> possibleMoves;
-    private LinkedList<Trie.TrieNode> trieNodes;
+    protected GameBoard gameBoard;
+    protected LetterRack availableTiles;
+    protected Dictionary dictionary;
+    private Dawg dawg;
+    private MoveBuffer possibleMoves;
+    private char[] word;
+    private Consumer<? super Move> moveConsumer;
+    private LeaveTable leaveTable;
+    private BoardView horizontalView;
+    private BoardView verticalView;
+    private int threads;
     private LinkedList<int[]> bestMoveCoordinates;
     private String bestWord;
     private DifficultyLevel difficulty;
 
     private enum DifficultyLevel {
-        EASY, MEDIUM, HARD
+        EASY, MEDIUM, HARD, EXPERT
     }
 
     public ScrabbleMoveGenerator(GameBoard gameBoard, Dictionary dictionary) {
         this.score = 0;
         this.gameBoard = gameBoard;
-        this.availableTiles = new LinkedList<>();
+        this.availableTiles = new LetterRack();
         this.dictionary = dictionary;
-        this.anchorPoints = gameBoard.getAnchorPositions();
-        this.leftPartialWords = new LinkedList<>();
-        this.possibleMoves = new TreeMap<>(Collections.reverseOrder());
-        this.trieNodes = new LinkedList<>();
+        this.dawg = dictionary.getDawg();
+        this.possibleMoves = new MoveBuffer();
+        this.word = new char[gameBoard.getDimension()];
         this.bestMoveCoordinates = new LinkedList<>();
         this.bestWord = "";
         this.difficulty = DifficultyLevel.HARD;
+        this.threads = 1;
     }
 
-    private void generateLeftPartialWords(String partialWord, Trie.TrieNode node, int limit,
-                                          int row, int col, boolean isRotated, int anchorRow, int anchorCol) {
+    /*
+     * The word being built is kept in the shared word buffer: the search methods take the
+     * number of letters placed so far, write the next letter after them and pass on the
+     * new length, so no strings are built while searching.
+     */
+    private void generateLeftPartialWords(int length, int node, int limit,
+                                          int row, int col, BoardView view, int anchorRow, int anchorCol) {
         if (limit > 0) {
             for (char c = 'a'; c <= 'z'; c++) {
-                if (processCharacter(partialWord, node, limit, row, col, isRotated, anchorRow, anchorCol, c)) {
-                    break;
-                }
+                processCharacter(length, node, limit, row, col, view, anchorRow, anchorCol, c);
             }
         }
 
-        leftPartialWords.add(partialWord);
-        trieNodes.add(node);
-
-        if (gameBoard.isValidDyWord(partialWord, row, col - 1)) {
-            extendWordRight(partialWord, node, row, col, isRotated, anchorRow, anchorCol);
+        if (isValidLeftPart(view, length, row, col - 1)) {
+            extendWordRight(length, node, row, col, view, anchorRow, anchorCol);
         }
     }
 
-    private boolean processCharacter(String partialWord, Trie.TrieNode node, int limit,
-                                     int row, int col, boolean isRotated, int anchorRow, int anchorCol, char c) {
-        Trie.TrieNode childNode = node.getChild(c - 'a');
-        if (childNode != null && (availableTiles.contains(c) || availableTiles.contains('*'))) {
-            boolean usingWildTile = !availableTiles.contains(c);
-            char character = usingWildTile ? Character.toUpperCase(c) : c;
-
-            Character tileToRemove = usingWildTile ? '*' : c;
-            availableTiles.remove(tileToRemove);
-
-            generateLeftPartialWords(partialWord + character, childNode, limit - 1,
-                    row, col, isRotated, anchorRow, anchorCol);
+    private void processCharacter(int length, int node, int limit,
+                                     int row, int col, BoardView view, int anchorRow, int anchorCol, char c) {
+        int childNode = dawg.getChild(node, c - 'a');
+        if (childNode == Dawg.NONE) {
+            return;
+        }
+        // The letter itself and a blank played as the letter are different moves, try both
+        for (int option = 0; option < 2; option++) {
+            int tile = option == 0 ? c - 'a' : LetterRack.BLANK;
+            if (!availableTiles.has(tile)) {
+                continue;
+            }
+            word[length] = option == 0 ? c : Character.toUpperCase(c);
+            availableTiles.take(tile);
 
-            availableTiles.add(tileToRemove);
+            generateLeftPartialWords(length + 1, childNode, limit - 1,
+                    row, col, view, anchorRow, anchorCol);
 
-            return true;
+            availableTiles.put(tile);
         }
-        return false;
     }
 
-    public void extendWordRight(String partialWord, Trie.TrieNode node, int row, int col,
-                                boolean isRotated, int anchorRow, int anchorCol) {
-        if (isValidCompleteWord(partialWord, node, row, col, anchorRow, anchorCol)) {
-            recordMove(partialWord, row, col, isRotated);
+    public void extendWordRight(int length, int node, int row, int col,
+                                BoardView view, int anchorRow, int anchorCol) {
+        if (isValidCompleteWord(view, node, row, col, anchorRow, anchorCol)) {
+            recordMove(length, row, col, view);
         }
 
-        if (col >= 0 && col < gameBoard.getDimension()) {
-            if (!gameBoard.hasExistingLetter(row, col)) {
-                extendWithNewCharacter(partialWord, node, row, col, isRotated, anchorRow, anchorCol);
+        if (col >= 0 && col < view.getDimension()) {
+            if (!view.hasExistingLetter(row, col)) {
+                extendWithNewCharacter(length, node, row, col, view, anchorRow, anchorCol);
             } else {
-                extendWithExistingCharacter(partialWord, node, row, col, isRotated, anchorRow, anchorCol);
+                extendWithExistingCharacter(length, node, row, col, view, anchorRow, anchorCol);
             }
         }
     }
 
-    private boolean isValidCompleteWord(String word, Trie.TrieNode node, int row, int col, int anchorRow, int anchorCol) {
-        return (row > anchorRow || col > anchorCol) && !gameBoard.hasExistingLetter(row, col) && node.isCompleteWord();
+    private boolean isValidCompleteWord(BoardView view, int node, int row, int col, int anchorRow, int anchorCol) {
+        return (row > anchorRow || col > anchorCol) && !view.hasExistingLetter(row, col) && dawg.isCompleteWord(node);
     }
 
-    private void recordMove(String word, int row, int col, boolean isRotated) {
-        LinkedHashMap<int[], Boolean> map = new LinkedHashMap<>();
-        LinkedList<int[]> index = gameBoard.calculateWordCoordinates(row, col - 1, isRotated, word);
+    /**
+     * Checks that every letter of a left part, placed to end at the given square, forms a
+     * legal word across the direction of play.
+     */
+    private boolean isValidLeftPart(BoardView view, int length, int endRow, int endCol) {
+        for (int i = 0; i < length; i++) {
+            char letter = Character.toLowerCase(word[length - 1 - i]);
+            if ((view.getCrossCheck(endRow, endCol - i) & (1 << (letter - 'a'))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordMove(int length, int row, int col, BoardView view) {
+        // The word ends left of the given square of the view
+        int startCol = col - length;
+        if (view.isTransposed()) {
+            recordMove(word, 0, length, startCol, row, true);
+        } else {
+            recordMove(word, 0, length, row, startCol, false);
+        }
+    }
+
+    /**
+     * Scores a legal move and adds it to the possible moves, or passes it on to the
+     * consumer of {@link #forEachMove(Consumer)} if one is running.
+     * The tiles the move uses must already be taken out of the available tiles, so what
+     * is left of them is the leave valued by the leave table.
+     * The letters are only read during the call, the array may be reused afterwards.
+     *
+     * @param letters  the word formed by the move, blanks in uppercase
+     * @param offset   the index of the first letter in {@code letters}
+     * @param length   the number of letters
+     * @param row      the row of the first letter on the board
+     * @param col      the column of the first letter on the board
+     * @param vertical true if the word is laid top to bottom
+     */
+    protected void recordMove(char[] letters, int offset, int length, int row, int col, boolean vertical) {
         boolean allTilesUsed = availableTiles.isEmpty();
-        int moveScore = gameBoard.calculateTotalScore(index, word, allTilesUsed);
-        map.put(new int[]{row, col - 1, moveScore}, isRotated);
-        LinkedHashMap<String, LinkedHashMap<int[], Boolean>> wordXYMap = new LinkedHashMap<>();
-        wordXYMap.put(word, map);
-        possibleMoves.computeIfAbsent(moveScore, k -> new LinkedHashMap<>()).putAll(wordXYMap);
+        int moveScore = gameBoard.calculateMoveScore(row, col, vertical, letters, offset, length, allTilesUsed);
+        int leave = leaveTable == null ? 0 : leaveTable.getScaledValue(availableTiles);
+        if (moveConsumer != null) {
+            moveConsumer.accept(new Move(new String(letters, offset, length), row, col, vertical, moveScore,
+                    leave / (double) LeaveTable.SCALE));
+        } else {
+            possibleMoves.add(letters, offset, length, row, col, vertical, moveScore, leave);
+        }
     }
 
-    private void extendWithNewCharacter(String partialWord, Trie.TrieNode node, int row, int col,
-                                        boolean isRotated, int anchorRow, int anchorCol) {
+    private void extendWithNewCharacter(int length, int node, int row, int col,
+                                        BoardView view, int anchorRow, int anchorCol) {
+        int crossCheck = view.getCrossCheck(row, col);
         for (char c = 'a'; c <= 'z'; c++) {
-            Trie.TrieNode childNode = node.getChild(c - 'a');
-            if (childNode != null && (availableTiles.contains(c) || availableTiles.contains('*')) && gameBoard.isValidDxWord(row, col, c)) {
-                boolean usingWildTile = !availableTiles.contains(c);
-                char character = usingWildTile ? Character.toUpperCase(c) : c;
-
-                Character tileToRemove = usingWildTile ? '*' : c;
-                availableTiles.remove(tileToRemove);
+            int childNode = dawg.getChild(node, c - 'a');
+            if (childNode == Dawg.NONE || (crossCheck & (1 << (c - 'a'))) == 0) {
+                continue;
+            }
+            for (int option = 0; option < 2; option++) {
+                int tile = option == 0 ? c - 'a' : LetterRack.BLANK;
+                if (!availableTiles.has(tile)) {
+                    continue;
+                }
+                word[length] = option == 0 ? c : Character.toUpperCase(c);
+                availableTiles.take(tile);
 
-                extendWordRight(partialWord + character, childNode, row, col + 1, isRotated, anchorRow, anchorCol);
+                extendWordRight(length + 1, childNode, row, col + 1, view, anchorRow, anchorCol);
 
-                availableTiles.add(tileToRemove);
+                availableTiles.put(tile);
             }
         }
     }
 
-    private void extendWithExistingCharacter(String partialWord, Trie.TrieNode node, int row, int col,
-                                             boolean isRotated, int anchorRow, int anchorCol) {
-        char c = gameBoard.getTileLetter(row, col);
-        Trie.TrieNode childNode = node.getChild(Character.toLowerCase(c) - 'a');
-        if (childNode != null) {
-            extendWordRight(partialWord + c, childNode, row, col + 1, isRotated, anchorRow, anchorCol);
+    private void extendWithExistingCharacter(int length, int node, int row, int col,
+                                             BoardView view, int anchorRow, int anchorCol) {
+        char c = view.getTileLetter(row, col);
+        int childNode = dawg.getChild(node, Character.toLowerCase(c) - 'a');
+        if (childNode != Dawg.NONE) {
+            word[length] = c;
+            extendWordRight(length + 1, childNode, row, col + 1, view, anchorRow, anchorCol);
         }
     }
 
-    public void generateMovesForCurrentOrientation() {
-        for (int i = 0; i < gameBoard.getDimension(); i++) {
-            for (int j = 0; j < gameBoard.getDimension(); j++) {
-                if (gameBoard.getAnchorPoints()[i][j].equals("A")) {
-                    processAnchorPoint(i, j);
-                }
+    /**
+     * Lists the searches that make up a full move generation, one per anchor and direction
+     * of play, in the order their moves are recorded.
+     *
+     * @return the searches as {row, col, vertical} with vertical 1 for top to bottom and 0
+     *         for left to right
+     */
+    protected List<int[]> listSearches() {
+        int dimension = gameBoard.getDimension();
+        BitSet anchors = gameBoard.getAnchorGrid(false);
+        List<int[]> searches = new ArrayList<>();
+        for (int i = anchors.nextSetBit(0); i >= 0; i = anchors.nextSetBit(i + 1)) {
+            searches.add(new int[]{i / dimension, i % dimension, 0});
+        }
+        // Columns are visited right to left, the order of the former rotated board, so
+        // equal-scoring moves keep ranking the same way. Each column is one row of the
+        // transposed grid.
+        BitSet columnAnchors = gameBoard.getAnchorGrid(true);
+        for (int j = dimension - 1; j >= 0; j--) {
+            int end = (j + 1) * dimension;
+            for (int i = columnAnchors.nextSetBit(j * dimension); i >= 0 && i < end; i = columnAnchors.nextSetBit(i + 1)) {
+                searches.add(new int[]{i - j * dimension, j, 1});
             }
         }
+        return searches;
     }
 
-    private void processAnchorPoint(int row, int col) {
-        int leftEmptySqr = gameBoard.countEmptySqauresLeft(row, col);
+    /**
+     * Finds the moves through one anchor in one direction of play.
+     *
+     * @param row      the row of the anchor
+     * @param col      the column of the anchor
+     * @param vertical true for moves played top to bottom, false for left to right
+     */
+    protected void searchAnchor(int row, int col, boolean vertical) {
+        if (vertical) {
+            processAnchorPoint(verticalView, col, row);
+        } else {
+            processAnchorPoint(horizontalView, row, col);
+        }
+    }
+
+    private void processAnchorPoint(BoardView view, int row, int col) {
+        int leftEmptySqr = countLeftPartSquares(view, row, col);
         if (leftEmptySqr == 0) {
-            processExistingWord(row, col);
+            processExistingWord(view, row, col);
         } else {
             int limit = Math.min(leftEmptySqr, 7);
-            generateLeftPartialWords("", dictionary.getTrie().getRoot(), limit, row, col, gameBoard.isRo(), row, col);
+            generateLeftPartialWords(0, dawg.getRoot(), limit, row, col, view, row, col);
+        }
+    }
+
+    /**
+     * Counts the empty squares left of an anchor that a left part may use.
+     * The count stops at the first letter or anchor, so every move is generated
+     * only from the leftmost anchor it covers.
+     *
+     * @param view the view for the direction of play
+     * @param row  row index of the anchor in the view
+     * @param col  column index of the anchor in the view
+     * @return the number of squares available for the left part
+     */
+    private int countLeftPartSquares(BoardView view, int row, int col) {
+        int count = 0;
+        for (int j = col - 1; j >= 0 && !view.hasExistingLetter(row, j) && !view.isAnchor(row, j); j--) {
+            count++;
         }
+        return count;
     }
 
-    private void processExistingWord(int row, int col) {
-        String leftPart = gameBoard.getAdjacentWord(row, col, 'L');
-        Trie.TrieNode node = dictionary.getTrie().getRoot();
+    private void processExistingWord(BoardView view, int row, int col) {
+        String leftPart = view.getAdjacentWord(row, col, 'L');
+        int node = dawg.getRoot();
         for (int k = 0; k < leftPart.length(); k++) {
-            node = node.getChild(leftPart.toLowerCase().charAt(k) - 'a');
-            if (node == null) {
+            word[k] = leftPart.charAt(k);
+            node = dawg.getChild(node, Character.toLowerCase(word[k]) - 'a');
+            if (node == Dawg.NONE) {
                 return;
             }
         }
-        extendWordRight(leftPart, node, row, col, gameBoard.isRo(), row, col);
+        extendWordRight(leftPart.length(), node, row, col, view, row, col);
     }
 
     public void generateAllPossibleMoves() {
         possibleMoves.clear();
-        gameBoard.updateAnchorPoints();
-        generateMovesForCurrentOrientation();
-        gameBoard.rotateBoardCCW();
-        gameBoard.updateAnchorPoints();
-        generateMovesForCurrentOrientation();
-        gameBoard.rotateBoardClockwise();
-        gameBoard.updateAnchorPoints();
+        generateMoves();
     }
 
-    private boolean isAnchorPoint(int i, int j) {
-        return anchorPoints.stream().anyMatch(anchor -> anchor[0] == i && anchor[1] == j);
+    /**
+     * Finds every legal move for the available tiles and passes each one to
+     * {@link #recordMove(char[], int, int, int, int, boolean)}. Uses the anchor and left-part search
+     * on the row-major view for horizontal moves and the transposed view for vertical ones.
+     *
+     * With more than one thread, the searches of {@link #listSearches()} are split into
+     * runs of neighbouring searches and handed to workers from {@link #createWorker()},
+     * each with its own copy of the tiles and its own move buffer. The buffers are joined
+     * in search order, so the moves and their order are the same as on one thread. The
+     * workers record the moves, so {@code recordMove} is not called on this generator.
+     * While {@link #forEachMove(Consumer)} runs, the workers keep no moves and pass each one
+     * to the consumer as they find it, one at a time.
+     */
+    protected void generateMoves() {
+        prepareSearch();
+        List<int[]> searches = listSearches();
+        if (threads > 1 && searches.size() > 1) {
+            generateMovesInParallel(searches);
+        } else {
+            for (int[] search : searches) {
+                searchAnchor(search[0], search[1], search[2] != 0);
+            }
+        }
+    }
+
+    /**
+     * Sets up the state a search needs on this generator. Workers call it too, while other
+     * searches run, so it must only read the board.
+     */
+    protected void prepareSearch() {
+        dawg = dictionary.getDawg();
+        if (word.length < gameBoard.getDimension()) {
+            word = new char[gameBoard.getDimension()];
+        }
+        horizontalView = gameBoard.getView(false);
+        verticalView = gameBoard.getView(true);
+    }
+
+    /**
+     * Creates a generator of the same kind on the same board, for a parallel search.
+     *
+     * @return the new generator
+     */
+    protected ScrabbleMoveGenerator createWorker() {
+        return new ScrabbleMoveGenerator(gameBoard, dictionary);
+    }
+
+    private void generateMovesInParallel(List<int[]> searches) {
+        // Fill the board's lazy caches first, so the workers only read the board
+        gameBoard.prepareConcurrentSearch();
+        int batchSize = Math.max(1, searches.size() / (threads * 4));
+        Consumer<Move> sink = null;
+        if (moveConsumer != null) {
+            // The consumer is called from the workers, so calls are made one at a time
+            Consumer<? super Move> consumer = moveConsumer;
+            Object lock = new Object();
+            sink = move -> {
+                synchronized (lock) {
+                    consumer.accept(move);
+                }
+            };
+        }
+        ForkJoinPool pool = POOLS.computeIfAbsent(threads, ForkJoinPool::new);
+        MoveBuffer found = pool.invoke(new AnchorSearch(searches, 0, searches.size(), batchSize, sink));
+        if (moveConsumer == null) {
+            possibleMoves.addAll(found);
+        }
+    }
+
+    /**
+     * Runs a range of searches, splitting it in halves until it is no longer than a batch.
+     * Each batch runs on its own worker and the halves' moves are joined in order.
+     */
+    private class AnchorSearch extends RecursiveTask<MoveBuffer> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<int[]> searches;
+        private final int start;
+        private final int end;
+        private final int batchSize;
+        private final Consumer<Move> sink;
+
+        AnchorSearch(List<int[]> searches, int start, int end, int batchSize, Consumer<Move> sink) {
+            this.searches = searches;
+            this.start = start;
+            this.end = end;
+            this.batchSize = batchSize;
+            this.sink = sink;
+        }
+
+        @Override
+        protected MoveBuffer compute() {
+            if (end - start <= batchSize) {
+                ScrabbleMoveGenerator worker = createWorker();
+                worker.setAvailableTiles(new LetterRack(availableTiles));
+                worker.leaveTable = leaveTable;
+                worker.moveConsumer = sink;
+                worker.prepareSearch();
+                for (int k = start; k < end; k++) {
+                    int[] search = searches.get(k);
+                    worker.searchAnchor(search[0], search[1], search[2] != 0);
+                }
+                return worker.possibleMoves;
+            }
+
+            int middle = (start + end) >>> 1;
+            AnchorSearch left = new AnchorSearch(searches, start, middle, batchSize, sink);
+            left.fork();
+            MoveBuffer rightMoves = new AnchorSearch(searches, middle, end, batchSize, sink).compute();
+            MoveBuffer moves = left.join();
+            moves.addAll(rightMoves);
+            return moves;
+        }
+    }
+
+    /**
+     * Finds every legal move for the available tiles and passes each one to a consumer as
+     * soon as it is found. The moves are not kept, and the possible moves of the last
+     * {@link #generateAllPossibleMoves()} are left as they were. With more than one
+     * thread the consumer is called from the worker threads, one call at a time, and the
+     * moves of different anchors arrive in no fixed order.
+     *
+     * @param consumer the consumer of the moves
+     */
+    public void forEachMove(Consumer<? super Move> consumer) {
+        moveConsumer = consumer;
+        try {
+            generateMoves();
+        } finally {
+            moveConsumer = null;
+        }
+    }
+
+    /**
+     * Finds the best legal moves for the available tiles by a caller's ranking. Only the
+     * best {@code count} moves seen so far are held, in a bounded heap, so the full move
+     * set is never in memory, on one thread or several. The order of moves the comparator
+     * finds equal is unspecified.
+     *
+     * @param count      the number of moves wanted
+     * @param comparator the ranking, ordering better moves first
+     * @return up to {@code count} moves, best first
+     */
+    public List<Move> findTopMoves(int count, Comparator<Move> comparator) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        // The worst move held is at the head of the queue, ready to be replaced
+        PriorityQueue<Move> best = new PriorityQueue<>(Math.min(count, 1024), comparator.reversed());
+        forEachMove(move -> {
+            if (best.size() < count) {
+                best.add(move);
+            } else if (comparator.compare(move, best.peek()) < 0) {
+                best.poll();
+                best.add(move);
+            }
+        });
+
+        List<Move> moves = new ArrayList<>(best);
+        moves.sort(comparator);
+        return moves;
     }
 
     public void determineBestMove() {
         generateAllPossibleMoves();
-        if (possibleMoves.isEmpty()) {
+        int best = possibleMoves.getBestIndex();
+        if (best < 0) {
             resetBestMove();
             return;
         }
 
-        Map.Entry<Integer, LinkedHashMap<String, LinkedHashMap<int[], Boolean>>> highestScoringEntry = possibleMoves.firstEntry();
-        this.score = highestScoringEntry.getKey();
-
-        LinkedHashMap<String, LinkedHashMap<int[], Boolean>> wordMap = highestScoringEntry.getValue();
-        String highestScoringWord = wordMap.keySet().iterator().next();
-        LinkedHashMap<int[], Boolean> positionMap = wordMap.get(highestScoringWord);
-
-        Map.Entry<int[], Boolean> positionEntry = positionMap.entrySet().iterator().next();
-        int[] position = positionEntry.getKey();
-        boolean isRotated = positionEntry.getValue();
-
-        int x = position[0];
-        int y = position[1];
-        bestMoveCoordinates = gameBoard.calculateWordCoordinates(x, y, isRotated, highestScoringWord);
-        bestWord = highestScoringWord;
+        Move bestMove = possibleMoves.getMove(best);
+        this.score = bestMove.getScore();
+        bestMoveCoordinates = bestMove.getCoordinates();
+        bestWord = bestMove.getWord();
 
         adjustMoveBasedOnDifficulty();
     }
@@ -216,6 +468,7 @@ public class ScrabbleMoveGenerator {
                 reduceScoreRandomly(0.8, 0.95);
                 break;
             case HARD:
+            case EXPERT:
                 // No adjustment needed
                 break;
         }
@@ -230,6 +483,18 @@ public class ScrabbleMoveGenerator {
         return score;
     }
 
+    /**
+     * Builds the best moves found by the last search, highest equity first: the score,
+     * plus the leave value if a leave table is set. Moves with equal equities keep the
+     * order in which they were found.
+     *
+     * @param count the number of moves wanted
+     * @return up to {@code count} moves
+     */
+    public List<Move> getTopMoves(int count) {
+        return possibleMoves.getTopMoves(count);
+    }
+
     public LinkedList<int[]> getBestMoveCoordinates() {
         return new LinkedList<>(bestMoveCoordinates);
     }
@@ -239,7 +504,41 @@ public class ScrabbleMoveGenerator {
     }
 
     public void setAvailableTiles(LinkedList<Character> availableTiles) {
-        this.availableTiles = new LinkedList<>(availableTiles);
+        this.availableTiles = new LetterRack(availableTiles);
+    }
+
+    public void setAvailableTiles(LetterRack availableTiles) {
+        this.availableTiles = availableTiles;
+    }
+
+    /**
+     * Sets the values of the tiles kept on the rack. With a table, moves are ranked by
+     * their score plus the value of their leave instead of by score alone; the score of
+     * the chosen move is still its points on the board.
+     *
+     * @param leaveTable the leave values, or null to rank by score
+     */
+    public void setLeaveTable(LeaveTable leaveTable) {
+        this.leaveTable = leaveTable;
+    }
+
+    /**
+     * Sets the number of threads move generation runs on. One thread, the default, runs
+     * every search on the calling thread. Generators with the same number of threads share
+     * one pool, so generators that are replaced leave no threads behind.
+     *
+     * @param threads the number of threads
+     * @throws IllegalArgumentException if the number is less than one
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
     }
 
     public void setDifficulty(String difficultyLevel) {
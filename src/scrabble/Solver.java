@@ -4,22 +4,34 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Solver {
+    // Solved puzzles each worker may be ahead of the output, before reading waits
+    private static final int PUZZLES_AHEAD_PER_THREAD = 4;
+
+    // Moves cached by default when only a cache file is given
+    private static final int DEFAULT_CACHE_ENTRIES = 100_000;
+
     private Dictionary dictionary;
     private ScoreMap scoreMap;
-    private String tileConfigFile;
+    private SolverCache cache;
 
     public Solver(String dictionaryFile, String tileConfigFile) throws IOException {
-        this.tileConfigFile = tileConfigFile;
         initializeDictionary(dictionaryFile);
         initializeScoreMap(tileConfigFile);
     }
 
     private void initializeDictionary(String dictionaryFile) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(dictionaryFile))) {
-            dictionary = new Dictionary(br);
-        }
+        dictionary = LexiconRegistry.getShared().load(dictionaryFile);
     }
 
     private void initializeScoreMap(String tileConfigFile) throws IOException {
@@ -28,66 +40,217 @@ public class Solver {
         }
     }
 
+    /**
+     * Sets a cache of solved puzzles. Puzzles found in it are not searched again.
+     *
+     * @param cache the cache, or null to search every puzzle
+     */
+    public void setCache(SolverCache cache) {
+        this.cache = cache;
+    }
+
+    public SolverCache getCache() {
+        return cache;
+    }
+
     public void solve(BufferedReader input) throws IOException {
-        String line;
-        while ((line = input.readLine()) != null) {
-            int dimension = Integer.parseInt(line.trim());
-            GameBoard gameBoard = new GameBoard(dimension, scoreMap);
-            StringBuilder boardConfig = new StringBuilder();
-
-            for (int i = 0; i < dimension; i++) {
-                boardConfig.append(input.readLine()).append(" ");
+        Puzzle puzzle;
+        while ((puzzle = readPuzzle(input)) != null) {
+            System.out.print(solvePuzzle(puzzle));
+        }
+    }
+
+    /**
+     * Solves the puzzles of an input on several threads. Puzzles are read on the calling
+     * thread and solved on a pool of workers that share the dictionary and score map.
+     * Results are held until every earlier puzzle is printed, so the output is the same
+     * as {@link #solve(BufferedReader)}.
+     *
+     * @param input   the puzzles
+     * @param threads the number of worker threads
+     * @throws IOException if the input cannot be read or a puzzle cannot be solved
+     */
+    public void solve(BufferedReader input, int threads) throws IOException {
+        if (threads <= 1) {
+            solve(input);
+            return;
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            Queue<Future<String>> pending = new ArrayDeque<>();
+            Puzzle puzzle;
+            while ((puzzle = readPuzzle(input)) != null) {
+                Puzzle next = puzzle;
+                pending.add(workers.submit(() -> solvePuzzle(next)));
+                if (pending.size() >= threads * PUZZLES_AHEAD_PER_THREAD) {
+                    printResult(pending.remove(), System.out);
+                }
+            }
+            while (!pending.isEmpty()) {
+                printResult(pending.remove(), System.out);
             }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
 
-            gameBoard.configBoard(boardConfig.toString().trim(), scoreMap);
-            gameBoard.setDictionary(dictionary);
+    private static void printResult(Future<String> result, PrintStream out) throws IOException {
+        try {
+            out.print(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to solve puzzle", e.getCause());
+        }
+    }
 
-            String tray = input.readLine().trim();
+    /**
+     * Reads the next puzzle: the board dimension, one line per board row, and the tray.
+     * The board is set up here, so only the search is left for the thread that solves it.
+     *
+     * @param input the puzzles
+     * @return the puzzle, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    private Puzzle readPuzzle(BufferedReader input) throws IOException {
+        String line = input.readLine();
+        if (line == null) {
+            return null;
+        }
+        int dimension = Integer.parseInt(line.trim());
+        GameBoard gameBoard = new GameBoard(dimension, scoreMap);
+        StringBuilder boardConfig = new StringBuilder();
 
-            printInputBoard(gameBoard, tray);
+        for (int i = 0; i < dimension; i++) {
+            boardConfig.append(input.readLine()).append(" ");
+        }
 
-            ComputerPlayer computerPlayer = new ComputerPlayer(new Rack(new TileBag(tileConfigFile)), gameBoard, dictionary);
-            computerPlayer.getRack().getAllTiles().clear();
-            for (char c : tray.toCharArray()) {
-                computerPlayer.getRack().addTile(new Tile(-1, -1, String.valueOf(c), scoreMap.getScore(String.valueOf(c))));
-            }
+        gameBoard.configBoard(boardConfig.toString().trim(), scoreMap);
+        gameBoard.setDictionary(dictionary);
 
-            computerPlayer.generateNextMove();
+        String tray = input.readLine().trim();
+        return new Puzzle(gameBoard, tray);
+    }
 
-            if (computerPlayer.hasNoValidMoves()) {
-                System.out.println("No valid moves found.");
-            } else {
-                String word = computerPlayer.getNextMoveWord();
-                int score = computerPlayer.getBestMoveScore();
-                System.out.printf("Solution %s has %d points%n", word, score);
+    /**
+     * Finds the best move for a puzzle and describes the board before and after it.
+     *
+     * @param puzzle the puzzle
+     * @return the text printed for the puzzle
+     */
+    private String solvePuzzle(Puzzle puzzle) {
+        GameBoard gameBoard = puzzle.gameBoard;
+        StringBuilder out = new StringBuilder();
+        String boardText = gameBoard.toString();
+        printInputBoard(out, boardText, puzzle.tray);
 
-                gameBoard.updateBoard(word, computerPlayer.getNextMoveCoordinates());
-                printSolutionBoard(gameBoard);
+        Move move;
+        String key = cache == null ? null : cache.key(boardText, puzzle.tray);
+        SolverCache.Entry cached = key == null ? null : cache.lookup(key);
+        if (cached != null) {
+            move = cached.getMove();
+        } else {
+            move = findBestMove(gameBoard, puzzle.tray);
+            if (key != null) {
+                cache.put(key, move);
             }
+        }
+
+        if (move == null) {
+            out.append("No valid moves found.").append(System.lineSeparator());
+        } else {
+            out.append(String.format("Solution %s has %d points%n", move.getWord(), move.getScore()));
+
+            gameBoard.updateBoard(move.getWord(), move.getCoordinates());
+            printSolutionBoard(out, gameBoard);
+        }
+
+        out.append(System.lineSeparator()); // Blank line between solutions
+        return out.toString();
+    }
+
+    /**
+     * Searches the best move for a tray.
+     *
+     * @return the move, or null if there is no legal move
+     */
+    private Move findBestMove(GameBoard gameBoard, String tray) {
+        ScrabbleMoveGenerator moveGenerator = new ScrabbleMoveGenerator(gameBoard, dictionary);
+        LinkedList<Character> tiles = new LinkedList<>();
+        for (char c : tray.toCharArray()) {
+            tiles.add(c);
+        }
+        moveGenerator.setAvailableTiles(tiles);
+        moveGenerator.determineBestMove();
 
-            System.out.println(); // Print blank line between solutions
+        String word = moveGenerator.getBestWord();
+        if (word.isEmpty()) {
+            return null;
         }
+        LinkedList<int[]> coordinates = moveGenerator.getBestMoveCoordinates();
+        int[] first = coordinates.getFirst();
+        boolean vertical = coordinates.size() > 1 && coordinates.get(1)[0] != first[0];
+        return new Move(word, first[0], first[1], vertical, moveGenerator.getScore());
     }
 
-    private void printInputBoard(GameBoard gameBoard, String tray) {
-        System.out.println("Input Board:");
-        System.out.print(gameBoard.toString());
-        System.out.println("Tray: " + tray);
+    private void printInputBoard(StringBuilder out, String boardText, String tray) {
+        out.append("Input Board:").append(System.lineSeparator());
+        out.append(boardText);
+        out.append("Tray: ").append(tray).append(System.lineSeparator());
     }
 
-    private void printSolutionBoard(GameBoard gameBoard) {
-        System.out.println("Solution Board:");
-        System.out.print(gameBoard.toString());
+    private void printSolutionBoard(StringBuilder out, GameBoard gameBoard) {
+        out.append("Solution Board:").append(System.lineSeparator());
+        out.append(gameBoard.toString());
+    }
+
+    /**
+     * A board read from the input and the tray to play on it.
+     */
+    private static class Puzzle {
+        private final GameBoard gameBoard;
+        private final String tray;
+
+        Puzzle(GameBoard gameBoard, String tray) {
+            this.gameBoard = gameBoard;
+            this.tray = tray;
+        }
     }
 
     public static void main(String[] args) {
+        GameLogger.setQuietByDefault();
+        int threads = 1;
+        int cacheEntries = 0;
+        String cacheFile = null;
+        while (args.length > 1 && (args[0].equals("-t") || args[0].equals("-c") || args[0].equals("-f"))) {
+            if (args[0].equals("-t")) {
+                threads = Integer.parseInt(args[1]);
+            } else if (args[0].equals("-c")) {
+                cacheEntries = Integer.parseInt(args[1]);
+            } else {
+                cacheFile = args[1];
+            }
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
         if (args.length != 2 && args.length != 3) {
-            System.out.println("Usage: java -jar solver.jar <dictionary_file> <tile_config_file> [<input_file>]");
+            System.out.println("Usage: java -jar solver.jar [-t <threads>] [-c <cache_entries>] [-f <cache_file>] <dictionary_file> <tile_config_file> [<input_file>]");
             System.exit(1);
         }
 
         try {
             Solver solver = new Solver(args[0], args[1]);
+            if (cacheEntries > 0 || cacheFile != null) {
+                SolverCache cache = new SolverCache(cacheEntries > 0 ? cacheEntries : DEFAULT_CACHE_ENTRIES, args[0], args[1]);
+                if (cacheFile != null) {
+                    cache.load(cacheFile);
+                }
+                solver.setCache(cache);
+            }
             BufferedReader input;
             if (args.length == 3) {
                 // If an input file is provided, read from it
@@ -96,10 +259,20 @@ public class Solver {
                 // Otherwise, read from standard input
                 input = new BufferedReader(new InputStreamReader(System.in));
             }
-            solver.solve(input);
+            solver.solve(input, threads);
+
+            SolverCache cache = solver.getCache();
+            if (cache != null) {
+                if (cacheFile != null) {
+                    cache.save(cacheFile);
+                }
+                // Reported apart from the solutions, so they can still be compared as they are
+                System.err.printf("Cache: %d hits, %d misses, %d entries%n",
+                        cache.getHits(), cache.getMisses(), cache.size());
+            }
         } catch (IOException e) {
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+}
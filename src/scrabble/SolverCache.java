@@ -0,0 +1,229 @@
+package scrabble;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Best moves found by the {@link Solver}, so repeated puzzles are not searched again.
+ * A puzzle is keyed by a SHA-256 digest of the dictionary and tile files the solver was
+ * started with, the text of the board and the tiles of the tray in sorted order, so the
+ * same position hits however its input was spaced or its tray ordered, and never hits for
+ * another dictionary or tile set.
+ *
+ * The cache holds at most a given number of moves, dropping the least recently used.
+ * It can be saved to a file and loaded from it, one move per line:
+ * the key, then the word, row, column, direction (H or V) and score, or "-" for a puzzle
+ * without a legal move. The methods are synchronized, so puzzles solved on several
+ * threads can share one cache.
+ */
+public class SolverCache {
+    private static final String NO_MOVE = "-";
+
+    private final byte[] identity;
+    private final Map<String, Entry> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * The best move of a puzzle, or none.
+     */
+    public static final class Entry {
+        private final Move move;
+
+        Entry(Move move) {
+            this.move = move;
+        }
+
+        /**
+         * Returns the best move of the puzzle.
+         *
+         * @return the move, or null if the puzzle has no legal move
+         */
+        public Move getMove() {
+            return move;
+        }
+    }
+
+    /**
+     * Constructs an empty cache for a dictionary and tile set.
+     *
+     * @param capacity       the most moves held
+     * @param dictionaryFile the dictionary file the solver loaded
+     * @param tileConfigFile the tile configuration file the solver loaded
+     * @throws IOException              if either file cannot be read
+     * @throws IllegalArgumentException if the capacity is less than one
+     */
+    public SolverCache(int capacity, String dictionaryFile, String tileConfigFile) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be at least 1: " + capacity);
+        }
+        MessageDigest digest = newDigest();
+        for (String file : new String[]{dictionaryFile, tileConfigFile}) {
+            try (InputStream in = Files.newInputStream(Paths.get(file))) {
+                byte[] buffer = new byte[1 << 16];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        this.identity = digest.digest();
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Computes the key of a puzzle.
+     *
+     * @param boardText the board as printed by {@link GameBoard#toString()}
+     * @param tray      the tiles of the tray
+     * @return the key, a hexadecimal digest
+     */
+    public String key(String boardText, String tray) {
+        char[] tiles = tray.toCharArray();
+        Arrays.sort(tiles);
+        MessageDigest digest = newDigest();
+        digest.update(identity);
+        digest.update(boardText.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(new String(tiles).getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Looks up a puzzle, marking it as recently used and counting a hit or a miss in the
+     * same call, so a move cached by another thread cannot be evicted between the check
+     * and the read.
+     *
+     * @param key the key of the puzzle
+     * @return the entry of the puzzle, or null if it is not cached
+     */
+    public synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return entry;
+    }
+
+    /**
+     * Caches the move of a puzzle.
+     *
+     * @param key  the key of the puzzle
+     * @param move the best move, or null if there is no legal move
+     */
+    public synchronized void put(String key, Move move) {
+        entries.put(key, new Entry(move));
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads the moves saved in a file, keeping the most recently used if there are more
+     * than the cache holds. A missing file is an empty cache.
+     *
+     * @param cacheFile the file
+     * @throws IOException if the file cannot be read or a line is malformed
+     */
+    public synchronized void load(String cacheFile) throws IOException {
+        Path path = Paths.get(cacheFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(" ");
+                try {
+                    if (fields.length == 2 && fields[1].equals(NO_MOVE)) {
+                        entries.put(fields[0], new Entry(null));
+                    } else if (fields.length == 6 && (fields[4].equals("H") || fields[4].equals("V"))) {
+                        entries.put(fields[0], new Entry(new Move(fields[1], Integer.parseInt(fields[2]),
+                                Integer.parseInt(fields[3]), fields[4].equals("V"), Integer.parseInt(fields[5]))));
+                    } else {
+                        throw new IOException("Malformed line " + lineNumber + " in cache file " + cacheFile);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed line " + lineNumber + " in cache file " + cacheFile, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves the moves to a file, least recently used first, so loading them back keeps
+     * the order. The file is written under another name and moved into place, so a
+     * failed save leaves the old file.
+     *
+     * @param cacheFile the file
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save(String cacheFile) throws IOException {
+        Path path = Paths.get(cacheFile).toAbsolutePath();
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    Move move = entry.getValue().move;
+                    writer.write(entry.getKey());
+                    if (move == null) {
+                        writer.write(" " + NO_MOVE);
+                    } else {
+                        writer.write(String.format(" %s %d %d %s %d", move.getWord(), move.getRow(), move.getCol(),
+                                move.isVertical() ? "V" : "H", move.getScore()));
+                    }
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
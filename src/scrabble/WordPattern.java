@@ -0,0 +1,408 @@
+package scrabble;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A word query answered by walking the {@link Dawg}, so only the branches of the graph
+ * that can still match are visited, instead of testing every word.
+ *
+ * A pattern is a sequence of slots, each standing for one letter of a set: a letter,
+ * {@code ?} or {@code .} for any letter, or a class such as {@code [aeiou]},
+ * {@code [^aeiou]} or {@code [a-f]}. A {@code *} stands for any number of letters,
+ * so {@code qu*} lists the words starting with "qu" and {@code ??[aeiou]?} the four letter
+ * words with a vowel third. {@link #fromRegex(String)} reads the same slots with regular
+ * expression quantifiers instead. The length of the words and the tiles they may use can
+ * be limited as well.
+ *
+ * The pattern is matched as a small automaton whose states are the numbers of slots
+ * filled, kept as bits of a long, so a pattern has at most {@value #MAX_SLOTS} slots.
+ * Every path of the graph is one word, so each match is found once, in alphabetical order.
+ */
+public class WordPattern {
+    static final int MAX_SLOTS = 63;
+    private static final int ALL_LETTERS = (1 << 26) - 1;
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final int slotCount;
+    /** The letters each slot accepts */
+    private final int[] slotMasks;
+    /** Slots that may be left out */
+    private final long optional;
+    /** For each letter, the filled slot counts the letter advances by one */
+    private final long[] advance;
+    /** For each letter, the filled slot counts that stay, for slots taking any number of letters */
+    private final long[] stay;
+    /** The fewest letters still needed from each state */
+    private final int[] remainingMin;
+    private final int patternMaxLength;
+    private int minLength;
+    private int maxLength;
+    private int[] rack;
+
+    private WordPattern(List<int[]> slots) {
+        if (slots.size() > MAX_SLOTS) {
+            throw new IllegalArgumentException("Pattern has more than " + MAX_SLOTS + " slots");
+        }
+        this.slotCount = slots.size();
+        this.slotMasks = new int[slotCount];
+        this.advance = new long[26];
+        this.stay = new long[26];
+        this.remainingMin = new int[slotCount + 1];
+        long optionalSlots = 0;
+        int maxTotal = 0;
+        for (int i = 0; i < slotCount; i++) {
+            int mask = slots.get(i)[0];
+            boolean canSkip = slots.get(i)[1] != 0;
+            boolean repeats = slots.get(i)[2] != 0;
+            slotMasks[i] = mask;
+            if (canSkip) {
+                optionalSlots |= 1L << i;
+            }
+            for (int letter = 0; letter < 26; letter++) {
+                if ((mask & (1 << letter)) != 0) {
+                    if (repeats) {
+                        stay[letter] |= 1L << i;
+                    } else {
+                        advance[letter] |= 1L << i;
+                    }
+                }
+            }
+            maxTotal = repeats || maxTotal == UNBOUNDED ? UNBOUNDED : maxTotal + 1;
+        }
+        for (int i = slotCount - 1; i >= 0; i--) {
+            remainingMin[i] = remainingMin[i + 1] + ((optionalSlots & (1L << i)) != 0 ? 0 : 1);
+        }
+        this.optional = optionalSlots;
+        this.patternMaxLength = maxTotal;
+        this.minLength = 0;
+        this.maxLength = UNBOUNDED;
+    }
+
+    /**
+     * Reads a pattern of letters, {@code ?} or {@code .} for any letter, letter classes in
+     * brackets, and {@code *} for any number of letters.
+     *
+     * @param pattern the pattern, case insensitive
+     * @return the query
+     * @throws IllegalArgumentException if the pattern is malformed or too long
+     */
+    public static WordPattern parse(String pattern) {
+        String text = pattern.toLowerCase();
+        List<int[]> slots = new ArrayList<>();
+        int[] position = {0};
+        while (position[0] < text.length()) {
+            char c = text.charAt(position[0]);
+            if (c == '*') {
+                position[0]++;
+                slots.add(new int[]{ALL_LETTERS, 1, 1});
+            } else {
+                slots.add(new int[]{readAtom(text, position), 0, 0});
+            }
+        }
+        return new WordPattern(slots);
+    }
+
+    /**
+     * Reads a regular expression made of letters, {@code .}, letter classes in brackets
+     * and the quantifiers {@code *}, {@code +}, {@code ?}, {@code {n}}, {@code {n,}} and
+     * {@code {n,m}}, matched against whole words like {@link String#matches(String)}.
+     * Letters other than lowercase ones match no word, as in the regular expression.
+     *
+     * @param regex the regular expression
+     * @return the query
+     * @throws IllegalArgumentException if the expression uses anything else, such as
+     *                                  groups, alternatives or escapes, or is too long
+     */
+    public static WordPattern fromRegex(String regex) {
+        String text = regex;
+        if (text.startsWith("^")) {
+            text = text.substring(1);
+        }
+        if (text.endsWith("$") && !text.endsWith("\\$")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        List<int[]> slots = new ArrayList<>();
+        int[] position = {0};
+        while (position[0] < text.length()) {
+            int mask = readRegexAtom(text, position);
+            int min = 1;
+            int max = 1;
+            if (position[0] < text.length()) {
+                char quantifier = text.charAt(position[0]);
+                if (quantifier == '*' || quantifier == '+' || quantifier == '?') {
+                    position[0]++;
+                    min = quantifier == '+' ? 1 : 0;
+                    max = quantifier == '?' ? 1 : UNBOUNDED;
+                } else if (quantifier == '{') {
+                    int close = text.indexOf('}', position[0]);
+                    if (close < 0) {
+                        throw new IllegalArgumentException("Unclosed repetition in " + regex);
+                    }
+                    String[] bounds = text.substring(position[0] + 1, close).split(",", -1);
+                    try {
+                        min = Integer.parseInt(bounds[0]);
+                        max = bounds.length == 1 ? min : bounds[1].isEmpty() ? UNBOUNDED : Integer.parseInt(bounds[1]);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Malformed repetition in " + regex, e);
+                    }
+                    if (bounds.length > 2 || min < 0 || max < min) {
+                        throw new IllegalArgumentException("Malformed repetition in " + regex);
+                    }
+                    position[0] = close + 1;
+                }
+                if (position[0] < text.length() && "*+?{".indexOf(text.charAt(position[0])) >= 0) {
+                    throw new IllegalArgumentException("Unsupported quantifier in " + regex);
+                }
+            }
+            if (min > MAX_SLOTS || (max != UNBOUNDED && max > MAX_SLOTS)) {
+                throw new IllegalArgumentException("Pattern has more than " + MAX_SLOTS + " slots");
+            }
+            for (int k = 0; k < min; k++) {
+                slots.add(new int[]{mask, 0, 0});
+            }
+            if (max == UNBOUNDED) {
+                slots.add(new int[]{mask, 1, 1});
+            } else {
+                for (int k = min; k < max; k++) {
+                    slots.add(new int[]{mask, 1, 0});
+                }
+            }
+        }
+        return new WordPattern(slots);
+    }
+
+    private static int readRegexAtom(String text, int[] position) {
+        char c = text.charAt(position[0]);
+        if (c == '.') {
+            position[0]++;
+            return ALL_LETTERS;
+        }
+        if (c == '[') {
+            return readClass(text, position);
+        }
+        if (Character.isLetterOrDigit(c)) {
+            position[0]++;
+            return c >= 'a' && c <= 'z' ? 1 << (c - 'a') : 0;
+        }
+        throw new IllegalArgumentException("Unsupported '" + c + "' in " + text);
+    }
+
+    private static int readAtom(String text, int[] position) {
+        char c = text.charAt(position[0]);
+        if (c == '?' || c == '.') {
+            position[0]++;
+            return ALL_LETTERS;
+        }
+        if (c == '[') {
+            return readClass(text, position);
+        }
+        if (c >= 'a' && c <= 'z') {
+            position[0]++;
+            return 1 << (c - 'a');
+        }
+        throw new IllegalArgumentException("Unexpected '" + c + "' in pattern " + text);
+    }
+
+    /**
+     * Reads a class such as {@code [aeiou]}, {@code [^aeiou]} or {@code [a-f]}.
+     */
+    private static int readClass(String text, int[] position) {
+        int close = text.indexOf(']', position[0]);
+        if (close < 0) {
+            throw new IllegalArgumentException("Unclosed class in " + text);
+        }
+        int start = position[0] + 1;
+        boolean negated = start < close && text.charAt(start) == '^';
+        if (negated) {
+            start++;
+        }
+        if (start == close) {
+            // A ']' right after the '[' is a letter of the class in a regular expression
+            throw new IllegalArgumentException("Empty class in " + text);
+        }
+        int mask = 0;
+        for (int i = start; i < close; i++) {
+            char from = text.charAt(i);
+            char to = from;
+            if (i + 2 < close && text.charAt(i + 1) == '-') {
+                to = text.charAt(i + 2);
+                i += 2;
+            }
+            if (from < 'a' || to > 'z' || from > to) {
+                throw new IllegalArgumentException("Unsupported class in " + text);
+            }
+            for (char letter = from; letter <= to; letter++) {
+                mask |= 1 << (letter - 'a');
+            }
+        }
+        position[0] = close + 1;
+        return negated ? ALL_LETTERS & ~mask : mask;
+    }
+
+    /**
+     * Limits the length of the words matched.
+     *
+     * @param minLength the fewest letters
+     * @param maxLength the most letters
+     */
+    public void setLengthRange(int minLength, int maxLength) {
+        if (minLength < 0 || maxLength < minLength) {
+            throw new IllegalArgumentException("Invalid length range: " + minLength + " to " + maxLength);
+        }
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Limits the words matched to those that can be formed from some or all of a rack's
+     * tiles, with '*' for a blank that stands for any letter.
+     *
+     * @param rack the tiles, or null for no limit
+     */
+    public void setRack(String rack) {
+        if (rack == null) {
+            this.rack = null;
+            return;
+        }
+        this.rack = new int[LetterRack.BLANK + 1];
+        for (char tile : rack.toLowerCase().toCharArray()) {
+            int index = LetterRack.indexOf(tile);
+            if (index >= 0) {
+                this.rack[index]++;
+            }
+        }
+    }
+
+    /**
+     * Checks if a single word matches.
+     *
+     * @param word the word
+     * @return true if it matches the pattern and the limits
+     */
+    public boolean matches(String word) {
+        if (word.length() < minLength || word.length() > maxLength) {
+            return false;
+        }
+        int[] tiles = rack == null ? null : rack.clone();
+        long states = closure(1L);
+        for (int i = 0; i < word.length() && states != 0; i++) {
+            int letter = word.charAt(i) - 'a';
+            if (letter < 0 || letter >= 26) {
+                return false;
+            }
+            if (tiles != null) {
+                if (tiles[letter] > 0) {
+                    tiles[letter]--;
+                } else if (tiles[LetterRack.BLANK] > 0) {
+                    tiles[LetterRack.BLANK]--;
+                } else {
+                    return false;
+                }
+            }
+            states = step(states, letter);
+        }
+        return (states & (1L << slotCount)) != 0;
+    }
+
+    /**
+     * Passes every word of a graph that matches to a consumer, in alphabetical order, as
+     * soon as it is found.
+     *
+     * @param dawg     the word graph
+     * @param consumer the consumer of the words
+     */
+    public void forEachMatch(Dawg dawg, Consumer<String> consumer) {
+        int limit = Math.min(maxLength, patternMaxLength);
+        char[] word = new char[limit == UNBOUNDED ? 32 : Math.max(1, limit)];
+        int[] tiles = rack == null ? null : rack.clone();
+        walk(dawg, dawg.getRoot(), closure(1L), word, 0, limit, tiles, consumer);
+    }
+
+    /**
+     * Lists every word of a graph that matches, in alphabetical order.
+     *
+     * @param dawg the word graph
+     * @return the words
+     */
+    public List<String> findMatches(Dawg dawg) {
+        List<String> words = new ArrayList<>();
+        forEachMatch(dawg, words::add);
+        return words;
+    }
+
+    private void walk(Dawg dawg, int node, long states, char[] word, int length, int limit,
+                      int[] tiles, Consumer<String> consumer) {
+        if ((states & (1L << slotCount)) != 0 && length >= minLength && dawg.isCompleteWord(node)) {
+            consumer.accept(new String(word, 0, length));
+        }
+        // The state with the most slots filled needs the fewest letters to finish
+        if (length >= limit || length + remainingMin[63 - Long.numberOfLeadingZeros(states)] > limit) {
+            return;
+        }
+        int letters = dawg.getChildMask(node) & acceptedLetters(states);
+        if (tiles != null && tiles[LetterRack.BLANK] == 0) {
+            letters &= rackLetters(tiles);
+        }
+        if (length == word.length) {
+            word = Arrays.copyOf(word, word.length * 2);
+        }
+        for (; letters != 0; letters &= letters - 1) {
+            int letter = Integer.numberOfTrailingZeros(letters);
+            long next = step(states, letter);
+            if (next == 0) {
+                continue;
+            }
+            int used = LetterRack.BLANK;
+            if (tiles != null) {
+                used = tiles[letter] > 0 ? letter : LetterRack.BLANK;
+                tiles[used]--;
+            }
+            word[length] = (char) ('a' + letter);
+            walk(dawg, dawg.getChild(node, letter), next, word, length + 1, limit, tiles, consumer);
+            if (tiles != null) {
+                tiles[used]++;
+            }
+        }
+    }
+
+    private static int rackLetters(int[] tiles) {
+        int mask = 0;
+        for (int letter = 0; letter < 26; letter++) {
+            if (tiles[letter] > 0) {
+                mask |= 1 << letter;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * The letters some state can take as its next letter.
+     */
+    private int acceptedLetters(long states) {
+        int mask = 0;
+        for (long bits = states & ~(1L << slotCount); bits != 0; bits &= bits - 1) {
+            mask |= slotMasks[Long.numberOfTrailingZeros(bits)];
+        }
+        return mask;
+    }
+
+    private long step(long states, int letter) {
+        return closure(((states & advance[letter]) << 1) | (states & stay[letter]));
+    }
+
+    /**
+     * Adds the states reached by leaving out optional slots.
+     */
+    private long closure(long states) {
+        long closed = states;
+        long previous;
+        do {
+            previous = closed;
+            closed |= (closed & optional) << 1;
+        } while (closed != previous);
+        return closed;
+    }
+}
@@ -0,0 +1,65 @@
+package scrabble;
+
+/**
+ * Keys for Zobrist hashing of positions. A position's hash is the XOR of one key per
+ * feature it has, such as a letter on a square, so placing or removing the feature
+ * updates the hash with one XOR. The keys are derived from the features by the SplitMix64
+ * finalizer instead of drawn at random, so every board, thread and run agrees on them
+ * and hashes can be kept across runs.
+ */
+public final class ZobristKeys {
+    private static final long SQUARE_FEATURE = 1L << 40;
+    private static final long TILE_FEATURE = 2L << 40;
+    private static final long FLAG_FEATURE = 3L << 40;
+    /** The key of each rack tile, indexed like {@link LetterRack} */
+    private static final long[] TILE_KEYS = new long[LetterRack.BLANK + 1];
+
+    static {
+        for (int index = 0; index < TILE_KEYS.length; index++) {
+            TILE_KEYS[index] = mix(TILE_FEATURE | index);
+        }
+    }
+
+    private ZobristKeys() {
+    }
+
+    /**
+     * Returns the key of a letter on a square.
+     *
+     * @param square the square, {@code row * dimension + column}
+     * @param letter the letter, uppercase for a blank
+     * @return the key
+     */
+    public static long square(int square, byte letter) {
+        return mix(SQUARE_FEATURE | ((long) square << 8) | (letter & 0xFF));
+    }
+
+    /**
+     * Returns the key of one tile on a rack. Racks hash to the sum of the keys of their
+     * tiles, so tiles of the same kind add up instead of cancelling out.
+     *
+     * @param index the letter index (0 for 'a') or {@link LetterRack#BLANK}
+     * @return the key
+     */
+    public static long tile(int index) {
+        return TILE_KEYS[index];
+    }
+
+    /**
+     * Returns the key of a numbered flag, for state kept outside the board and racks such
+     * as the player to move.
+     *
+     * @param flag the number of the flag
+     * @return the key
+     */
+    public static long flag(int flag) {
+        return mix(FLAG_FEATURE | flag);
+    }
+
+    private static long mix(long feature) {
+        long z = feature + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}